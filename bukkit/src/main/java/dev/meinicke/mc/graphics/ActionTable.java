@@ -0,0 +1,405 @@
+package dev.meinicke.mc.graphics;
+
+import dev.meinicke.mc.graphics.InventoryGraphic.Action;
+import org.bukkit.event.inventory.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+/**
+ * Slot-indexed storage of the actions of an {@link InventoryGraphic}.
+ */
+public final class ActionTable {
+
+    // Static initializers
+
+    public static final int SLOTS = 54;
+
+    // Assignability cache, indexed by action reference and then by the event class
+    private static final @NotNull ClassValue<@NotNull Map<@NotNull Class<?>, @NotNull Boolean>> assignable = new ClassValue<Map<Class<?>, Boolean>>() {
+        @Override
+        protected @NotNull Map<@NotNull Class<?>, @NotNull Boolean> computeValue(@NotNull Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    public static boolean accepts(@NotNull Action<?> action, @NotNull InventoryEvent e) {
+        @NotNull Class<?> reference = action.getReference();
+        @NotNull Map<@NotNull Class<?>, @NotNull Boolean> cache = assignable.get(reference);
+        @Nullable Boolean accepts = cache.get(e.getClass());
+
+        if (accepts == null) {
+            accepts = reference.isAssignableFrom(e.getClass());
+            cache.put(e.getClass(), accepts);
+        }
+
+        return accepts;
+    }
+
+    private static int index(@Nullable Integer slot) {
+        if (slot == null) {
+            return SLOTS;
+        } else if (slot < 0 || slot >= SLOTS) {
+            throw new IllegalArgumentException("invalid action slot: " + slot);
+        }
+
+        return slot;
+    }
+
+    // Object
+
+    // The last index (SLOTS) is the global bucket
+    private final @NotNull AtomicReferenceArray<@NotNull Bucket> snapshots = new AtomicReferenceArray<>(SLOTS + 1);
+    private final @NotNull Map<@Nullable Integer, @NotNull Collection<@NotNull Action<?>>> map = new MapView();
+
+    public ActionTable() {
+        for (int index = 0; index <= SLOTS; index++) {
+            snapshots.set(index, Bucket.EMPTY);
+        }
+    }
+    private ActionTable(@NotNull ActionTable table) {
+        for (int index = 0; index <= SLOTS; index++) {
+            snapshots.set(index, table.snapshots.get(index));
+        }
+    }
+
+    // Getters
+
+    @NotNull Bucket snapshot(@Nullable Integer slot) {
+        return snapshots.get(index(slot));
+    }
+
+    public boolean isEmpty(@Nullable Integer slot) {
+        return snapshot(slot).actions.length == 0;
+    }
+
+    public @NotNull Collection<@NotNull Action<?>> get(@Nullable Integer slot) {
+        return new CollectionView(index(slot));
+    }
+    public @NotNull Map<@Nullable Integer, @NotNull Collection<@NotNull Action<?>>> asMap() {
+        return map;
+    }
+
+    // Modules
+
+    synchronized @NotNull ActionTable fork() {
+        return new ActionTable(this);
+    }
+
+    public synchronized boolean add(@Nullable Integer slot, @NotNull Action<?> action) {
+        int index = index(slot);
+        @NotNull Action<?>[] snapshot = snapshots.get(index).actions;
+
+        for (@NotNull Action<?> existing : snapshot) {
+            if (existing.equals(action)) {
+                return false;
+            }
+        }
+
+        @NotNull Action<?>[] updated = Arrays.copyOf(snapshot, snapshot.length + 1);
+        updated[snapshot.length] = action;
+
+        snapshots.set(index, new Bucket(updated));
+        return true;
+    }
+    public boolean remove(@Nullable Integer slot, @Nullable Object action) {
+        return removeIf(slot, existing -> existing.equals(action));
+    }
+    public synchronized boolean removeIf(@Nullable Integer slot, @NotNull Predicate<? super Action<?>> filter) {
+        return removeIf(index(slot), filter);
+    }
+    public synchronized void removeIf(@NotNull Predicate<? super Action<?>> filter) {
+        for (int index = 0; index <= SLOTS; index++) {
+            removeIf(index, filter);
+        }
+    }
+    public synchronized void clear(@Nullable Integer slot) {
+        snapshots.set(index(slot), Bucket.EMPTY);
+    }
+
+    private boolean removeIf(int index, @NotNull Predicate<? super Action<?>> filter) {
+        @NotNull Action<?>[] snapshot = snapshots.get(index).actions;
+        @NotNull Action<?>[] updated = new Action<?>[snapshot.length];
+        int length = 0;
+
+        for (@NotNull Action<?> action : snapshot) {
+            if (!filter.test(action)) {
+                updated[length++] = action;
+            }
+        }
+
+        if (length == snapshot.length) {
+            return false;
+        }
+
+        snapshots.set(index, length == 0 ? Bucket.EMPTY : new Bucket(Arrays.copyOf(updated, length)));
+        return true;
+    }
+
+    // Classes
+
+    /**
+     * The event kinds that the dispatcher distinguishes, every kind owns its own actions bucket.
+     */
+    enum Kind {
+
+        CLICK(InventoryClickEvent.class),
+        CREATIVE(InventoryCreativeEvent.class),
+        DRAG(InventoryDragEvent.class),
+        OPEN(InventoryOpenEvent.class),
+        CLOSE(InventoryCloseEvent.class),
+        INTERACT(InventoryInteractEvent.class),
+        ;
+
+        private static final @NotNull Kind @NotNull [] values = values();
+
+        // Object
+
+        private final @NotNull Class<? extends InventoryEvent> type;
+
+        Kind(@NotNull Class<? extends InventoryEvent> type) {
+            this.type = type;
+        }
+
+    }
+
+    /**
+     * An immutable snapshot of the actions of a slot, with the actions pre-split by {@link Kind}.
+     */
+    static final class Bucket {
+
+        private static final @NotNull Bucket EMPTY = new Bucket(new Action<?>[0]);
+
+        // Object
+
+        final @NotNull Action<?> @NotNull [] actions;
+
+        private final @NotNull Action<?> @NotNull [] @NotNull [] kinds = new Action<?>[Kind.values.length][];
+        private final boolean @NotNull [] @NotNull [] checks = new boolean[Kind.values.length][];
+
+        private Bucket(@NotNull Action<?> @NotNull [] actions) {
+            this.actions = actions;
+
+            for (@NotNull Kind kind : Kind.values) {
+                @NotNull Action<?>[] bucket = new Action<?>[actions.length];
+                boolean[] check = new boolean[actions.length];
+                int length = 0;
+
+                for (@NotNull Action<?> action : actions) {
+                    @NotNull Class<?> reference = action.getReference();
+
+                    if (reference.isAssignableFrom(kind.type)) {
+                        bucket[length++] = action;
+                    } else if (kind.type.isAssignableFrom(reference)) {
+                        check[length] = true;
+                        bucket[length++] = action;
+                    }
+                }
+
+                kinds[kind.ordinal()] = Arrays.copyOf(bucket, length);
+                checks[kind.ordinal()] = Arrays.copyOf(check, length);
+            }
+        }
+
+        // Getters
+
+        @NotNull Action<?> @NotNull [] get(@NotNull Kind kind) {
+            return kinds[kind.ordinal()];
+        }
+        boolean @NotNull [] checks(@NotNull Kind kind) {
+            return checks[kind.ordinal()];
+        }
+
+    }
+
+    private final class CollectionView extends AbstractCollection<@NotNull Action<?>> {
+
+        private final int index;
+
+        private CollectionView(int index) {
+            this.index = index;
+        }
+
+        private @Nullable Integer getSlot() {
+            return index == SLOTS ? null : index;
+        }
+
+        // Implementations
+
+        @Override
+        public @NotNull Iterator<@NotNull Action<?>> iterator() {
+            @NotNull Action<?>[] snapshot = snapshots.get(index).actions;
+
+            return new Iterator<Action<?>>() {
+
+                private int cursor = 0;
+                private @Nullable Action<?> last;
+
+                @Override
+                public boolean hasNext() {
+                    return cursor < snapshot.length;
+                }
+                @Override
+                public @NotNull Action<?> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+
+                    return last = snapshot[cursor++];
+                }
+                @Override
+                public void remove() {
+                    if (last == null) {
+                        throw new IllegalStateException();
+                    }
+
+                    ActionTable.this.remove(getSlot(), last);
+                    last = null;
+                }
+
+            };
+        }
+        @Override
+        public int size() {
+            return snapshots.get(index).actions.length;
+        }
+
+        @Override
+        public boolean add(@NotNull Action<?> action) {
+            return ActionTable.this.add(getSlot(), action);
+        }
+        @Override
+        public boolean remove(@Nullable Object object) {
+            return ActionTable.this.remove(getSlot(), object);
+        }
+        @Override
+        public boolean removeIf(@NotNull Predicate<? super Action<?>> filter) {
+            return ActionTable.this.removeIf(getSlot(), filter);
+        }
+        @Override
+        public void clear() {
+            ActionTable.this.clear(getSlot());
+        }
+
+    }
+    private final class MapView extends AbstractMap<@Nullable Integer, @NotNull Collection<@NotNull Action<?>>> {
+
+        private @Nullable Integer toSlot(@Nullable Object key) {
+            if (key == null) {
+                return null;
+            } else if (key instanceof Integer && (Integer) key >= 0 && (Integer) key < SLOTS) {
+                return (Integer) key;
+            }
+
+            throw new IllegalArgumentException("invalid action slot: " + key);
+        }
+        private boolean isSlot(@Nullable Object key) {
+            return key == null || (key instanceof Integer && (Integer) key >= 0 && (Integer) key < SLOTS);
+        }
+
+        // Implementations
+
+        @Override
+        public boolean containsKey(@Nullable Object key) {
+            return isSlot(key) && !ActionTable.this.isEmpty(toSlot(key));
+        }
+        @Override
+        public @Nullable Collection<@NotNull Action<?>> get(@Nullable Object key) {
+            // The view of a valid slot is always returned (even if empty), so
+            // #computeIfAbsent writes through to the table.
+            return isSlot(key) ? ActionTable.this.get(toSlot(key)) : null;
+        }
+        @Override
+        public @Nullable Collection<@NotNull Action<?>> put(@Nullable Integer key, @NotNull Collection<@NotNull Action<?>> value) {
+            @Nullable Collection<@NotNull Action<?>> previous = remove(key);
+
+            for (@NotNull Action<?> action : value) {
+                ActionTable.this.add(key, action);
+            }
+
+            return previous;
+        }
+        @Override
+        public @Nullable Collection<@NotNull Action<?>> remove(@Nullable Object key) {
+            if (!isSlot(key)) {
+                return null;
+            }
+
+            synchronized (ActionTable.this) {
+                @NotNull Action<?>[] snapshot = snapshot(toSlot(key)).actions;
+                ActionTable.this.clear(toSlot(key));
+
+                return snapshot.length == 0 ? null : Collections.unmodifiableList(Arrays.asList(snapshot));
+            }
+        }
+
+        @Override
+        public @NotNull Set<@NotNull Entry<@Nullable Integer, @NotNull Collection<@NotNull Action<?>>>> entrySet() {
+            return new AbstractSet<Entry<Integer, Collection<Action<?>>>>() {
+                @Override
+                public @NotNull Iterator<@NotNull Entry<@Nullable Integer, @NotNull Collection<@NotNull Action<?>>>> iterator() {
+                    return new Iterator<Entry<Integer, Collection<Action<?>>>>() {
+
+                        // The global bucket comes first (position 0), then the slots in order
+                        private int position = 0;
+                        private int last = -1;
+
+                        private int seek() {
+                            for (; position <= SLOTS; position++) {
+                                int index = position == 0 ? SLOTS : position - 1;
+
+                                if (snapshots.get(index).actions.length > 0) {
+                                    return index;
+                                }
+                            }
+
+                            return -1;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return seek() != -1;
+                        }
+                        @Override
+                        public @NotNull Entry<@Nullable Integer, @NotNull Collection<@NotNull Action<?>>> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+
+                            last = seek();
+                            position++;
+
+                            return new SimpleImmutableEntry<>(last == SLOTS ? null : last, new CollectionView(last));
+                        }
+                        @Override
+                        public void remove() {
+                            if (last == -1) {
+                                throw new IllegalStateException();
+                            }
+
+                            ActionTable.this.clear(last == SLOTS ? null : last);
+                            last = -1;
+                        }
+
+                    };
+                }
+                @Override
+                public int size() {
+                    int size = 0;
+
+                    for (int index = 0; index <= SLOTS; index++) {
+                        if (snapshots.get(index).actions.length > 0) size++;
+                    }
+
+                    return size;
+                }
+            };
+        }
+
+    }
+
+}
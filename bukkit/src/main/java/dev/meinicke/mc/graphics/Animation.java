@@ -0,0 +1,143 @@
+package dev.meinicke.mc.graphics;
+
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable sequence of slot frames, each one shown for a number of ticks.
+ */
+public final class Animation {
+
+    // Static initializers
+
+    public static @NotNull Animation of(int duration, @Nullable ItemStack @NotNull ... frames) {
+        @NotNull Builder builder = builder();
+
+        for (@Nullable ItemStack frame : frames) {
+            builder.frame(frame, duration);
+        }
+
+        return builder.build();
+    }
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    // Object
+
+    private final @Nullable ItemStack @NotNull [] frames;
+    private final int @NotNull [] ends; // The tick each frame ends, cumulative
+    private final boolean loop;
+
+    private Animation(@Nullable ItemStack @NotNull [] frames, int @NotNull [] ends, boolean loop) {
+        this.frames = frames;
+        this.ends = ends;
+        this.loop = loop;
+    }
+
+    // Getters
+
+    public int getFrameCount() {
+        return frames.length;
+    }
+    public @Nullable ItemStack getFrame(int frame) {
+        return frames[frame];
+    }
+    public int getDuration(int frame) {
+        return ends[frame] - (frame == 0 ? 0 : ends[frame - 1]);
+    }
+
+    public int getLength() {
+        return ends[ends.length - 1];
+    }
+    public boolean isLooping() {
+        return loop;
+    }
+
+    // Modules
+
+    public int getFrameAt(int tick) {
+        if (tick >= getLength()) {
+            if (!loop) return frames.length - 1;
+            tick %= getLength();
+        }
+
+        int index = Arrays.binarySearch(ends, tick);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    int getNextChange(int tick) {
+        if (tick >= getLength() && !loop) {
+            return Integer.MAX_VALUE;
+        }
+
+        int cycle = tick - (tick % getLength());
+        return cycle + ends[getFrameAt(tick)];
+    }
+
+    // Implementations
+
+    @Override
+    public @NotNull String toString() {
+        return "Animation{" +
+                "frames=" + frames.length +
+                ", length=" + getLength() +
+                ", loop=" + loop +
+                '}';
+    }
+
+    // Classes
+
+    public static final class Builder {
+
+        private final @NotNull List<@Nullable ItemStack> frames = new ArrayList<>();
+        private final @NotNull List<@NotNull Integer> durations = new ArrayList<>();
+        private boolean loop = true;
+
+        private Builder() {
+        }
+
+        // Modules
+
+        @Contract("_,_->this")
+        public @NotNull Builder frame(@Nullable ItemStack frame, int duration) {
+            if (duration <= 0) {
+                throw new IllegalArgumentException("the frame duration must be positive");
+            }
+
+            frames.add(frame != null ? frame.clone() : null);
+            durations.add(duration);
+
+            return this;
+        }
+        @Contract("_->this")
+        public @NotNull Builder loop(boolean loop) {
+            this.loop = loop;
+            return this;
+        }
+
+        public @NotNull Animation build() {
+            if (frames.isEmpty()) {
+                throw new IllegalStateException("an animation must have at least one frame");
+            }
+
+            int @NotNull [] ends = new int[durations.size()];
+            int tick = 0;
+
+            for (int index = 0; index < ends.length; index++) {
+                tick += durations.get(index);
+                ends[index] = tick;
+            }
+
+            return new Animation(frames.toArray(new ItemStack[0]), ends, loop);
+        }
+
+    }
+
+}
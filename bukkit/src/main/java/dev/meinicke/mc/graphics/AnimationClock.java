@@ -0,0 +1,207 @@
+package dev.meinicke.mc.graphics;
+
+import org.bukkit.Bukkit;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * The single tick clock shared by every animated graphic.
+ */
+final class AnimationClock implements Runnable {
+
+    // Static initializers
+
+    private static final @NotNull AnimationClock instance = new AnimationClock();
+
+    static @NotNull AnimationClock get() {
+        return instance;
+    }
+
+    // Object
+
+    private final @NotNull List<@NotNull Animator> animators = new ArrayList<>();
+
+    private @Nullable BukkitTask task;
+    private @Nullable Plugin owner;
+
+    private AnimationClock() {
+    }
+
+    // Modules
+
+    void register(@NotNull Animator animator) {
+        if (animator.registered) {
+            return;
+        }
+
+        animator.registered = true;
+        animators.add(animator);
+
+        // Starts the clock, or restarts it if the plugin that owned it was disabled
+        if (task == null || owner == null || !owner.isEnabled()) {
+            owner = animator.graphic.getPlugin();
+            task = Bukkit.getScheduler().runTaskTimer(owner, this, 1L, 1L);
+        }
+    }
+
+    void unregister(@NotNull Animator animator) {
+        if (!animator.registered) {
+            return;
+        }
+
+        animator.registered = false;
+        animators.remove(animator);
+
+        if (animators.isEmpty()) {
+            cancel();
+        }
+    }
+    private void cancel() {
+        if (task != null) {
+            task.cancel();
+        }
+
+        task = null;
+        owner = null;
+    }
+
+    @Override
+    public void run() {
+        for (int index = 0; index < animators.size(); index++) {
+            @NotNull Animator animator = animators.get(index);
+            boolean running;
+
+            try {
+                running = animator.tick();
+            } catch (@NotNull Throwable throwable) {
+                running = false;
+                animator.graphic.getPlugin().getLogger().log(Level.SEVERE, "cannot animate inventory graphic: " + animator.graphic, throwable);
+            }
+
+            if (!running) {
+                // Swap-remove, the order of the animators doesn't matter
+                animator.registered = false;
+                animators.set(index, animators.get(animators.size() - 1));
+                animators.remove(animators.size() - 1);
+
+                index--;
+            }
+        }
+
+        if (animators.isEmpty()) {
+            cancel();
+        }
+    }
+
+    // Classes
+
+    /**
+     * The animations of a single graphic, one per slot.
+     */
+    static final class Animator {
+
+        // Object
+
+        private final @NotNull InventoryGraphic graphic;
+
+        private final @Nullable Animation @NotNull [] animations = new Animation[ActionTable.SLOTS];
+        private final int @NotNull [] elapsed = new int[ActionTable.SLOTS]; // Ticks played, paused ticks excluded
+        private final int @NotNull [] frames = new int[ActionTable.SLOTS]; // The frame currently shown
+        private final int @NotNull [] changes = new int[ActionTable.SLOTS]; // The tick the frame changes next
+
+        private long active = 0L; // One bit per animated slot
+        private boolean registered = false;
+
+        Animator(@NotNull InventoryGraphic graphic) {
+            this.graphic = graphic;
+        }
+
+        // Getters
+
+        @Nullable Animation get(int slot) {
+            return animations[slot];
+        }
+
+        // Modules
+
+        void start(int slot, @NotNull Animation animation) {
+            if (slot < 0 || slot >= ActionTable.SLOTS) {
+                throw new IllegalArgumentException("invalid slot: " + slot);
+            }
+
+            animations[slot] = animation;
+            elapsed[slot] = 0;
+            frames[slot] = 0;
+            changes[slot] = animation.getNextChange(0);
+            active |= 1L << slot;
+
+            graphic.getBuffer().set(slot, animation.getFrame(0));
+            AnimationClock.get().register(this);
+        }
+        void resume() {
+            if (active != 0L) {
+                AnimationClock.get().register(this);
+            }
+        }
+        void stop(int slot) {
+            if (slot >= 0 && slot < ActionTable.SLOTS) {
+                animations[slot] = null;
+                active &= ~(1L << slot);
+            }
+        }
+
+        boolean tick() {
+            // Without viewers the animations are paused, they're resumed when the graphic is opened
+            if (active == 0L || graphic.isClosed() || !graphic.hasViewers()) {
+                return false;
+            }
+
+            long remaining = active;
+            boolean changed = false;
+
+            while (remaining != 0L) {
+                int slot = Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+
+                int tick = ++elapsed[slot];
+
+                if (tick < changes[slot]) {
+                    continue;
+                }
+
+                @NotNull Animation animation = animations[slot];
+                int frame = animation.getFrameAt(tick);
+
+                changes[slot] = animation.getNextChange(tick);
+
+                if (frame != frames[slot]) {
+                    @Nullable ItemStack item = animation.getFrame(frame);
+
+                    frames[slot] = frame;
+                    graphic.getBuffer().set(slot, item);
+                    changed = true;
+                }
+
+                if (changes[slot] == Integer.MAX_VALUE) {
+                    // Finished, the last frame stays
+                    stop(slot);
+                }
+            }
+
+            if (changed) {
+                graphic.commit();
+            }
+
+            return active != 0L;
+        }
+
+    }
+
+}
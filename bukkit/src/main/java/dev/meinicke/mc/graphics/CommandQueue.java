@@ -0,0 +1,118 @@
+package dev.meinicke.mc.graphics;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+
+/**
+ * A lock-free multi-producer single-consumer queue of commands, drained at the main thread.
+ */
+final class CommandQueue {
+
+    // Object
+
+    private final @NotNull Plugin plugin;
+
+    // The consumer owns the head, the producers swap the tail
+    private @NotNull Node head;
+    private final @NotNull AtomicReference<@NotNull Node> tail;
+
+    // Whether a drain task is scheduled and didn't start yet
+    private final @NotNull AtomicBoolean pending = new AtomicBoolean(false);
+
+    CommandQueue(@NotNull Plugin plugin) {
+        this.plugin = plugin;
+
+        @NotNull Node stub = new Node(null);
+        this.head = stub;
+        this.tail = new AtomicReference<>(stub);
+    }
+
+    // Getters
+
+    public boolean isEmpty() {
+        return head == tail.get();
+    }
+
+    // Modules
+
+    public void submit(@NotNull Runnable command) {
+        if (Bukkit.isPrimaryThread()) {
+            drain();
+            execute(command);
+
+            return;
+        }
+
+        // Link the node, the producers never wait for each other
+        @NotNull Node node = new Node(command);
+        tail.getAndSet(node).next = node;
+
+        if (pending.compareAndSet(false, true)) {
+            try {
+                Bukkit.getScheduler().runTask(plugin, this::drain);
+            } catch (@NotNull RuntimeException e) {
+                // Nothing will drain the queue (like when the plugin is disabled), the next submit tries again
+                pending.set(false);
+                throw e;
+            }
+        }
+    }
+
+    public void drain() {
+        // Commands enqueued after this point schedule another drain if this one doesn't see them
+        pending.set(false);
+
+        @Nullable Runnable command;
+        while ((command = poll()) != null) {
+            execute(command);
+        }
+    }
+
+    private @Nullable Runnable poll() {
+        @Nullable Node next = head.next;
+
+        if (next == null) {
+            if (head == tail.get()) {
+                return null;
+            }
+
+            // A producer swapped the tail but didn't link the node yet, it's a matter of nanoseconds
+            while ((next = head.next) == null) {
+                Thread.yield();
+            }
+        }
+
+        @Nullable Runnable command = next.command;
+        next.command = null;
+        head = next;
+
+        return command;
+    }
+    private void execute(@NotNull Runnable command) {
+        try {
+            command.run();
+        } catch (@NotNull Throwable throwable) {
+            plugin.getLogger().log(Level.SEVERE, "cannot execute the queued graphic command: " + command, throwable);
+        }
+    }
+
+    // Classes
+
+    private static final class Node {
+
+        private @Nullable Runnable command;
+        private volatile @Nullable Node next;
+
+        private Node(@Nullable Runnable command) {
+            this.command = command;
+        }
+
+    }
+
+}
@@ -1,6 +1,5 @@
 package dev.meinicke.mc.graphics;
 
-import org.bukkit.Bukkit;
 import org.bukkit.entity.HumanEntity;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
@@ -8,13 +7,21 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.Closeable;
 import java.util.Collection;
+import java.util.concurrent.TimeUnit;
 
 public interface Graphic extends Closeable {
 
     // Static initializers
 
     static void initialize(@NotNull Plugin plugin) {
-        Bukkit.getPluginManager().registerEvents(new InventoryGraphic.AbstractAction.ListenerImpl(), plugin);
+        InventoryGraphic.AbstractAction.ListenerImpl.register(plugin);
+    }
+    static void initialize(@NotNull Plugin plugin, long budget, @NotNull TimeUnit unit) {
+        initialize(plugin);
+        UpdateScheduler.start(plugin, unit.toNanos(budget));
+    }
+    static void shutdown() {
+        UpdateScheduler.stop();
     }
 
     // Getters
@@ -1,21 +1,26 @@
 package dev.meinicke.mc.graphics;
 
+import dev.meinicke.mc.graphics.ActionTable.Bucket;
+import dev.meinicke.mc.graphics.ActionTable.Kind;
+import dev.meinicke.mc.graphics.utils.SharedItems;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
 import org.bukkit.event.Cancellable;
 import org.bukkit.event.EventHandler;
-import org.bukkit.event.HandlerList;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.*;
 import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
-import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 public class InventoryGraphic implements Graphic {
@@ -23,23 +28,66 @@ public class InventoryGraphic implements Graphic {
     // Object
 
     private final @NotNull Plugin plugin;
-    private @NotNull Listener listener = new ListenerImpl();
+    private final @NotNull Holder holder = new Holder();
 
     private @NotNull Inventory handle;
     private @Nullable String title;
 
-    private final @NotNull Map<@NotNull Integer, @NotNull Collection<@NotNull Action<?>>> actions = new HashMap<>();
+    private final @NotNull ActionTable actions;
+
+    // What was pushed to the handle (air is null), and its fingerprint at that time. Both arrays may be
+    // shared with prototypes and their forks, they're copied before the first write (see #ownSlots)
+    private final @NotNull SlotBuffer buffer = new SlotBuffer();
+    private @Nullable ItemStack @NotNull [] shown = new ItemStack[ActionTable.SLOTS];
+    private int @NotNull [] fingerprints = new int[ActionTable.SLOTS];
+    private boolean sharedSlots = false;
+    private long stale = 0L; // The slots changed by the viewers, the cache above can't be trusted for them
+
     private volatile boolean closed = false;
-    private volatile boolean activeListener = false;
     private volatile boolean listening = true;
 
+    // The depth of the nested updates, and the inventory the viewers were looking at when it started
+    private int updates = 0;
+    private @Nullable Inventory displaced;
+
+    boolean scheduled = false; // Queued at the update scheduler
+
+    private final @NotNull CommandQueue commands;
+    private volatile @Nullable Async async; // Created once, by the first thread asking for it
+
+    private @Nullable AnimationClock.Animator animator;
+
+    // The own inventories of the viewers, null while every viewer shares the handle
+    private @Nullable Map<@NotNull UUID, @NotNull View> views;
+    private @Nullable Consumer<@NotNull View> initializer;
+
     public InventoryGraphic(@NotNull Plugin plugin, @Nullable String title, @NotNull Rows rows) {
         this(plugin, title, rows.getSlots());
     }
     public InventoryGraphic(@NotNull Plugin plugin, @Nullable String title, int size) {
         this.plugin = plugin;
-        this.handle = Bukkit.createInventory(null, size, title);
+        this.handle = Bukkit.createInventory(holder, size, title);
         this.title = title;
+        this.actions = new ActionTable();
+        this.commands = new CommandQueue(plugin);
+    }
+    protected InventoryGraphic(@NotNull Prototype prototype) {
+        this.plugin = prototype.plugin;
+        this.handle = Bukkit.createInventory(holder, prototype.size, prototype.title);
+        this.title = prototype.title;
+        this.actions = prototype.actions.fork();
+        this.commands = new CommandQueue(plugin);
+
+        this.shown = prototype.shown;
+        this.fingerprints = prototype.fingerprints;
+        this.sharedSlots = true;
+
+        if (prototype.perViewer) {
+            this.views = new HashMap<>();
+        }
+        this.initializer = prototype.initializer;
+
+        handle.setContents(prototype.contents);
     }
 
     // Getters
@@ -66,23 +114,19 @@ public class InventoryGraphic implements Graphic {
         }
 
         // Clone inventory
-        @NotNull Inventory old = getHandle();
         @NotNull Inventory newly = Bukkit.createInventory(getHandle().getHolder(), getHandle().getSize(), title);
 
         for (int slot = 0; slot < getHandle().getSize(); slot++) {
             newly.setItem(slot, getHandle().getItem(slot));
         }
 
-        // Open inventory to all viewers
-        this.listening = false;
-        for (@NotNull HumanEntity human : new ArrayList<>(old.getViewers())) {
-            human.openInventory(newly);
-        }
-
         // Change inventory handler
-        this.listening = true;
-        this.handle = newly;
         this.title = title;
+        replace(newly);
+    }
+
+    public final boolean isClosed() {
+        return closed;
     }
 
     public final @NotNull Rows getRows() {
@@ -104,22 +148,20 @@ public class InventoryGraphic implements Graphic {
         }
 
         // Clone inventory
-        @NotNull Inventory old = getHandle();
         @NotNull Inventory newly = Bukkit.createInventory(getHandle().getHolder(), size, getTitle());
 
         for (int slot = 0; slot < Math.min(size, getHandle().getSize()); slot++) {
             newly.setItem(slot, getHandle().getItem(slot));
         }
-
-        // Open inventory to all viewers
-        this.listening = false;
-        for (@NotNull HumanEntity human : new ArrayList<>(old.getViewers())) {
-            human.openInventory(newly);
+        if (size < getHandle().getSize()) {
+            ownSlots();
+        }
+        for (int slot = size; slot < getHandle().getSize(); slot++) {
+            shown[slot] = null;
         }
 
         // Change inventory handler
-        this.listening = true;
-        this.handle = newly;
+        replace(newly);
     }
     public void setSize(@NotNull Rows rows) {
         setSize(rows.getSlots());
@@ -128,29 +170,20 @@ public class InventoryGraphic implements Graphic {
     // Actions
 
     public @NotNull Map<@Nullable Integer, @NotNull Collection<@NotNull Action<?>>> getActions() {
-        return actions;
+        return actions.asMap();
     }
     public @NotNull Collection<@NotNull Action<?>> getActions(@Nullable Integer slot) {
-        return getActions().computeIfAbsent(slot, k -> new LinkedHashSet<>());
+        return actions.get(slot);
     }
-
-    protected final void setListener(@NotNull Listener listener) {
-        // Unregister old one
-        HandlerList.unregisterAll(listener);
-
-        // Change it and register if possible
-        this.listener = listener;
-
-        if (activeListener) {
-            Bukkit.getPluginManager().registerEvents(listener, getPlugin());
-        }
+    protected final @NotNull ActionTable getActionTable() {
+        return actions;
     }
 
     // Items
 
     public @Nullable ItemStack getItem(int slot) {
-        // Variables
-        @Nullable ItemStack item = getHandle().getItem(slot);
+        // Variables, a staged slot isn't pushed yet
+        @Nullable ItemStack item = slot >= 0 && slot < ActionTable.SLOTS && buffer.isStaged(slot) ? buffer.get(slot) : getHandle().getItem(slot);
 
         // Check if it's air or null
         if (item == null || item.getType() == Material.AIR) {
@@ -162,18 +195,450 @@ public class InventoryGraphic implements Graphic {
     }
 
     public <T extends InventoryEvent> void setItem(@Nullable ItemStack item, @Nullable Action<T> action, int @NotNull ... slots) {
+        // Items set during an update are only pushed when it ends, and the scheduler pushes them at the next tick.
+        // The actions and #getItem(int) are up to date immediately, only the inventory waits
+        boolean deferred = isUpdating() || UpdateScheduler.get() != null;
+
         for (int slot : slots) {
-            getHandle().setItem(slot, item != null ? item : new ItemStack(Material.AIR));
+            if (animator != null) {
+                animator.stop(slot);
+            }
+
+            if (deferred) buffer.set(slot, item);
+            else push(slot, item);
 
             if (action != null) {
-                getActions().computeIfAbsent(slot, k -> new LinkedHashSet<>()).add(action);
+                actions.add(slot, action);
             }
         }
+
+        if (deferred) {
+            commit();
+        }
     }
     public void setItem(@NotNull ItemStack item, int @NotNull ... slots) {
         setItem(item, null, slots);
     }
 
+    // Layouts
+
+    public void apply(@NotNull Layout layout) {
+        batch(() -> {
+            setSize(layout.getSize());
+
+            // The actions of the layout replace the current ones, they don't stack on them
+            for (long remaining = layout.getMask(); remaining != 0L; remaining &= remaining - 1) {
+                int slot = Long.numberOfTrailingZeros(remaining);
+
+                if (animator != null) animator.stop(slot);
+                actions.clear(slot);
+            }
+
+            layout.stage(buffer, actions);
+        });
+    }
+
+    // Animations
+
+    public final void animate(@NotNull Animation animation, int @NotNull ... slots) {
+        if (animator == null) {
+            animator = new AnimationClock.Animator(this);
+        }
+
+        for (int slot : slots) {
+            animator.start(slot, animation);
+        }
+
+        commit();
+    }
+    public final void stopAnimation(int @NotNull ... slots) {
+        if (animator == null) {
+            return;
+        }
+
+        for (int slot : slots) {
+            animator.stop(slot);
+        }
+    }
+    public final @Nullable Animation getAnimation(int slot) {
+        return animator != null && slot >= 0 && slot < ActionTable.SLOTS ? animator.get(slot) : null;
+    }
+
+    // Asynchronous
+
+    public @NotNull Async async() {
+        @Nullable Async async = this.async;
+
+        if (async == null) {
+            synchronized (this) {
+                if ((async = this.async) == null) {
+                    this.async = async = new Async();
+                }
+            }
+        }
+
+        return async;
+    }
+
+    // Updates
+
+    public final boolean isUpdating() {
+        return updates > 0;
+    }
+
+    public final void beginUpdate() {
+        updates++;
+    }
+    public final void endUpdate() {
+        if (updates == 0) {
+            throw new IllegalStateException("there's no update in progress");
+        } else if (--updates > 0) {
+            return;
+        }
+
+        try {
+            flush();
+        } finally {
+            reopen();
+        }
+    }
+    public final void batch(@NotNull Runnable changes) {
+        beginUpdate();
+
+        try {
+            changes.run();
+        } finally {
+            endUpdate();
+        }
+    }
+
+    protected void flush() {
+        commit();
+    }
+
+    private void replace(@NotNull Inventory newly) {
+        if (displaced == null) {
+            displaced = handle;
+        }
+
+        this.handle = newly;
+
+        if (views != null) {
+            for (@NotNull View view : views.values()) {
+                view.replace();
+            }
+        }
+
+        if (!isUpdating()) {
+            reopen();
+        }
+    }
+    private void reopen() {
+        @Nullable Inventory old = displaced;
+        displaced = null;
+
+        if (old == null || old == handle) {
+            return;
+        }
+
+        // Open inventory to all viewers
+        this.listening = false;
+
+        try {
+            for (@NotNull HumanEntity human : new ArrayList<>(old.getViewers())) {
+                human.openInventory(handle);
+            }
+
+            if (views != null) {
+                for (@NotNull View view : new ArrayList<>(views.values())) {
+                    view.reopen();
+                }
+            }
+        } finally {
+            this.listening = true;
+        }
+    }
+
+    // Rendering
+
+    protected final @NotNull SlotBuffer getBuffer() {
+        return buffer;
+    }
+
+    protected final void commit() {
+        if (isUpdating() || buffer.isEmpty()) {
+            return;
+        }
+
+        @Nullable UpdateScheduler scheduler = UpdateScheduler.get();
+
+        if (scheduler != null) {
+            scheduler.mark(this);
+        } else {
+            drain(Long.MAX_VALUE);
+        }
+    }
+    final boolean drain(long budget) {
+        long deadline = budget == Long.MAX_VALUE ? 0L : System.nanoTime() + budget;
+        long staged = buffer.getStaged();
+
+        while (staged != 0L) {
+            int slot = Long.numberOfTrailingZeros(staged);
+            staged &= staged - 1;
+
+            @Nullable ItemStack item = buffer.get(slot);
+            buffer.unstage(slot);
+
+            if (slot < getSize() && !isShown(slot, item)) {
+                push(slot, item);
+            }
+
+            if (staged != 0L && deadline != 0L && System.nanoTime() - deadline > 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean isShown(int slot, @Nullable ItemStack item) {
+        return (stale & (1L << slot)) == 0 && isSame(shown[slot], fingerprints[slot], item);
+    }
+    private static boolean isSame(@Nullable ItemStack shown, int fingerprint, @Nullable ItemStack item) {
+        if (item == null || item.getType() == Material.AIR) {
+            return shown == null;
+        } else if (shown == null) {
+            return false;
+        } else if (item == shown && SharedItems.isShared(item)) {
+            // Shared items cannot be mutated, the identity is enough
+            return true;
+        }
+
+        // The fingerprint detects stacks that were mutated after being pushed
+        return fingerprint(item) == fingerprint && (item == shown || item.equals(shown));
+    }
+    private void push(int slot, @Nullable ItemStack item) {
+        if (item == null || item.getType() == Material.AIR) {
+            getHandle().setItem(slot, SharedItems.air());
+            item = null;
+        } else {
+            getHandle().setItem(slot, item);
+        }
+
+        if (slot >= 0 && slot < ActionTable.SLOTS) {
+            ownSlots();
+
+            shown[slot] = item;
+            fingerprints[slot] = fingerprint(item);
+            stale &= ~(1L << slot);
+
+            // The viewers with their own inventory see it too, unless they overlay the slot
+            if (views != null) {
+                for (@NotNull View view : views.values()) {
+                    view.propagate(slot, item);
+                }
+            }
+        }
+    }
+
+    protected final void invalidate(int slot) {
+        if (slot >= 0 && slot < ActionTable.SLOTS) {
+            stale |= 1L << slot;
+        }
+    }
+    private void invalidate(@NotNull HumanEntity human, @NotNull Inventory inventory, int slot) {
+        long mask = slot < 0 ? -1L : slot < ActionTable.SLOTS ? 1L << slot : 0L;
+        @Nullable View view = getView(human);
+
+        if (view != null && view.getInventory().equals(inventory)) {
+            // The overlaid slots are cached by the view, the others by this graphic
+            view.stale |= mask & view.overlaid;
+            stale |= mask & ~view.overlaid;
+        } else {
+            stale |= mask;
+        }
+    }
+
+    private void ownSlots() {
+        if (sharedSlots) {
+            shown = shown.clone();
+            fingerprints = fingerprints.clone();
+            sharedSlots = false;
+        }
+    }
+
+    private static int fingerprint(@Nullable ItemStack item) {
+        return item == null ? 0 : item.hashCode();
+    }
+
+    // Viewers
+
+    public final boolean hasViewers() {
+        return hasViewers(null);
+    }
+    private boolean hasViewers(@Nullable HumanEntity excluded) {
+        if (isViewed(getHandle(), excluded)) {
+            return true;
+        } else if (views != null) {
+            for (@NotNull View view : views.values()) {
+                if (isViewed(view.getInventory(), excluded)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+    private static boolean isViewed(@NotNull Inventory inventory, @Nullable HumanEntity excluded) {
+        for (@NotNull HumanEntity viewer : inventory.getViewers()) {
+            if (!viewer.equals(excluded)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    protected void idle() {
+    }
+
+    public final boolean isPerViewer() {
+        return views != null;
+    }
+    public void setPerViewer(boolean perViewer) {
+        if (perViewer == isPerViewer()) {
+            return;
+        } else if (!Bukkit.isPrimaryThread()) {
+            throw new IllegalStateException("this method should be called synchronously");
+        }
+
+        @NotNull List<@NotNull HumanEntity> humans = new ArrayList<>();
+
+        if (views == null) {
+            humans.addAll(getHandle().getViewers());
+            views = new HashMap<>();
+        } else {
+            for (@NotNull View view : views.values()) {
+                humans.addAll(view.getInventory().getViewers());
+                view.release();
+            }
+
+            views = null;
+        }
+
+        if (closed) {
+            return;
+        }
+
+        // Move the viewers to their new inventory
+        this.listening = false;
+
+        try {
+            open(humans);
+        } finally {
+            this.listening = true;
+        }
+    }
+
+    public final @Nullable View getView(@NotNull HumanEntity human) {
+        return views != null ? views.get(human.getUniqueId()) : null;
+    }
+    public final @NotNull Collection<@NotNull View> getViews() {
+        return views != null ? Collections.unmodifiableCollection(views.values()) : Collections.emptyList();
+    }
+    public final @NotNull View view(@NotNull HumanEntity human) {
+        if (views == null) {
+            throw new IllegalStateException("this graphic isn't per-viewer");
+        }
+
+        @Nullable View view = views.get(human.getUniqueId());
+
+        if (view == null) {
+            prune();
+
+            view = createView(human);
+            views.put(human.getUniqueId(), view);
+
+            if (initializer != null) {
+                initializer.accept(view);
+            }
+        }
+
+        return view;
+    }
+
+    public final @Nullable Consumer<@NotNull View> getViewInitializer() {
+        return initializer;
+    }
+    public final void setViewInitializer(@Nullable Consumer<@NotNull View> initializer) {
+        this.initializer = initializer;
+    }
+
+    public <T extends InventoryEvent> void setItem(@NotNull HumanEntity human, @Nullable ItemStack item, @Nullable Action<T> action, int @NotNull ... slots) {
+        @NotNull View view = view(human);
+
+        for (int slot : slots) {
+            view.setItem(slot, item);
+
+            if (action != null) {
+                view.getActions(slot).add(action);
+            }
+        }
+    }
+    public void setItem(@NotNull HumanEntity human, @Nullable ItemStack item, int @NotNull ... slots) {
+        setItem(human, item, null, slots);
+    }
+    public void resetItem(@NotNull HumanEntity human, int @NotNull ... slots) {
+        @Nullable View view = getView(human);
+        if (view == null) return;
+
+        for (int slot : slots) {
+            view.reset(slot);
+        }
+    }
+    protected @NotNull View createView(@NotNull HumanEntity human) {
+        return new View(human);
+    }
+
+    public boolean removeView(@NotNull HumanEntity human) {
+        if (!Bukkit.isPrimaryThread()) {
+            throw new IllegalStateException("this method should be called synchronously");
+        }
+
+        @Nullable View view = views != null ? views.remove(human.getUniqueId()) : null;
+        if (view == null) return false;
+
+        close(view.getInventory().getViewers().toArray(new HumanEntity[0]));
+        view.release();
+
+        return true;
+    }
+
+    private void prune() {
+        if (views == null) {
+            return;
+        }
+
+        for (@NotNull Iterator<View> iterator = views.values().iterator(); iterator.hasNext(); ) {
+            @NotNull View view = iterator.next();
+
+            if (view.getHuman() instanceof Player && !((Player) view.getHuman()).isOnline() && view.getInventory().getViewers().isEmpty()) {
+                iterator.remove();
+                view.release();
+            }
+        }
+    }
+
+    // Prototypes
+
+    public @NotNull Prototype freeze() {
+        return new Prototype(this);
+    }
+    @Override
+    public @NotNull InventoryGraphic recreate(@NotNull HumanEntity human) {
+        return freeze().create();
+    }
+
     // Helpers
 
     public void cancelOnClick() {
@@ -204,15 +669,20 @@ public class InventoryGraphic implements Graphic {
             throw new IllegalStateException("this inventory graphic is already closed, you need to recreate it.");
         }
 
-        // Register events
-        if (!humans.isEmpty() && !activeListener) {
-            Bukkit.getPluginManager().registerEvents(listener, getPlugin());
-            activeListener = true;
-        }
+        // Register the shared listener, if the graphics weren't initialized yet
+        AbstractAction.ListenerImpl.register(getPlugin());
+
+        // Resume the paused animations
+        if (animator != null) animator.resume();
 
         // Open inventory to humans
         for (@NotNull HumanEntity human : humans) {
-            human.openInventory(getHandle());
+            if (views == null) {
+                human.openInventory(getHandle());
+                continue;
+            }
+
+            human.openInventory(view(human).getInventory());
         }
     }
 
@@ -234,12 +704,66 @@ public class InventoryGraphic implements Graphic {
         if (closed) return;
         else closed = true;
 
+        if (animator != null) AnimationClock.get().unregister(animator);
+
         // Close inventory to all entities
         close(getHandle().getViewers().toArray(new HumanEntity[0]));
 
-        // Unregister listener
-        HandlerList.unregisterAll(listener);
-        activeListener = false;
+        if (views != null) {
+            for (@NotNull View view : new ArrayList<>(views.values())) {
+                close(view.getInventory().getViewers().toArray(new HumanEntity[0]));
+            }
+
+            // The views are kept after their viewers close them, they're released with the graphic
+            for (@NotNull View view : views.values()) {
+                view.release();
+            }
+
+            views.clear();
+        }
+    }
+
+    // Dispatching
+
+    private void call(@Nullable Integer slot, @NotNull Kind kind, @NotNull InventoryEvent e) {
+        // Global actions first, then the actions of the slot
+        invoke(actions.snapshot(null), kind, e);
+
+        if (slot != null && slot >= 0 && slot < ActionTable.SLOTS) {
+            // The slots overlaid by the view of the viewer use its actions
+            @Nullable View view = views != null ? views.get(e.getView().getPlayer().getUniqueId()) : null;
+
+            if (view == null || !view.isOverlaid(slot)) {
+                invoke(actions.snapshot(slot), kind, e);
+            } else if (view.actions != null) {
+                invoke(view.actions.snapshot(slot), kind, e);
+            }
+        }
+    }
+    @SuppressWarnings("unchecked")
+    private static void invoke(@NotNull Bucket bucket, @NotNull Kind kind, @NotNull InventoryEvent e) {
+        @NotNull Action<?>[] actions = bucket.get(kind);
+        boolean[] checks = bucket.checks(kind);
+
+        for (int index = 0; index < actions.length; index++) {
+            //noinspection rawtypes
+            @NotNull Action action = actions[index];
+
+            if (checks[index] && !ActionTable.accepts(action, e)) {
+                continue;
+            }
+
+            try {
+                action.accept(e);
+            } catch (@NotNull Throwable throwable) {
+                if (e instanceof Cancellable) {
+                    ((Cancellable) e).setCancelled(true);
+                    throw new RuntimeException("cannot invoke action '" + action + "' for event: " + e + ". The event has automatically cancelled to avoid issues.", throwable);
+                } else {
+                    throw new RuntimeException("cannot invoke action '" + action + "' for event: " + e, throwable);
+                }
+            }
+        }
     }
 
     // Implementations
@@ -326,11 +850,131 @@ public class InventoryGraphic implements Graphic {
 
         // Classes
 
+        /**
+         * The single listener shared by every inventory graphic.
+         */
         static final class ListenerImpl implements Listener {
+
+            // Static initializers
+
+            private static @Nullable Plugin registered;
+
+            static synchronized void register(@NotNull Plugin plugin) {
+                // A disabled plugin had its listeners unregistered
+                if (registered != null && registered.isEnabled()) {
+                    return;
+                }
+
+                Bukkit.getPluginManager().registerEvents(new ListenerImpl(), plugin);
+                registered = plugin;
+            }
+
+            private static @Nullable InventoryGraphic getGraphic(@Nullable Inventory inventory) {
+                if (inventory == null) {
+                    return null;
+                }
+
+                @Nullable InventoryHolder holder = inventory.getHolder();
+                return holder instanceof Holder ? ((Holder) holder).getGraphic() : null;
+            }
+
+            // Listeners
+
+            @EventHandler
+            private void open(@NotNull InventoryOpenEvent e) {
+                @Nullable InventoryGraphic graphic = getGraphic(e.getInventory());
+
+                if (graphic != null && graphic.listening) {
+                    graphic.call(null, Kind.OPEN, e);
+                }
+            }
+            @EventHandler
+            private void interact(@NotNull InventoryInteractEvent e) {
+                @Nullable InventoryGraphic graphic = getGraphic(e.getInventory());
+
+                if (graphic != null) {
+                    graphic.call(null, Kind.INTERACT, e);
+                }
+            }
+            @EventHandler
+            private void creativeClick(@NotNull InventoryCreativeEvent e) {
+                @Nullable InventoryGraphic graphic = getGraphic(e.getClickedInventory());
+
+                if (graphic != null) {
+                    graphic.call(e.getSlot(), Kind.CREATIVE, e);
+                }
+            }
+            @EventHandler
+            private void drag(@NotNull InventoryDragEvent e) {
+                @Nullable InventoryGraphic graphic = getGraphic(e.getInventory());
+
+                if (graphic != null) {
+                    graphic.call(null, Kind.DRAG, e);
+                }
+            }
             @EventHandler
             private void click(@NotNull InventoryClickEvent e) {
+                // Creative clicks share the click handler list, they're dispatched by #creativeClick
+                if (e instanceof InventoryCreativeEvent) {
+                    return;
+                }
+
+                @Nullable InventoryGraphic graphic = getGraphic(e.getClickedInventory());
 
+                if (graphic != null) {
+                    graphic.call(e.getSlot(), Kind.CLICK, e);
+                }
             }
+            @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+            private void dragged(@NotNull InventoryDragEvent e) {
+                @Nullable InventoryGraphic graphic = getGraphic(e.getInventory());
+
+                if (graphic != null) {
+                    // The raw slots of the top inventory are its own slots
+                    int size = e.getInventory().getSize();
+
+                    for (int slot : e.getRawSlots()) {
+                        if (slot < size) {
+                            graphic.invalidate(e.getWhoClicked(), e.getInventory(), slot);
+                        }
+                    }
+                }
+            }
+            @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+            private void clicked(@NotNull InventoryClickEvent e) {
+                @Nullable InventoryGraphic graphic = getGraphic(e.getInventory());
+                @Nullable Inventory clicked = e.getClickedInventory();
+
+                if (graphic == null || clicked == null) {
+                    return;
+                }
+
+                // The uncancelled clicks may have changed the graphic slots, the next items set at them are pushed
+                // again. Double clicks collect from every slot, and shift clicks from below move into any slot
+                if (e.getClick() == ClickType.DOUBLE_CLICK || (!clicked.equals(e.getInventory()) && e.isShiftClick())) {
+                    graphic.invalidate(e.getWhoClicked(), e.getInventory(), -1);
+                } else if (clicked.equals(e.getInventory())) {
+                    graphic.invalidate(e.getWhoClicked(), e.getInventory(), e.getSlot());
+                }
+            }
+            @EventHandler
+            private void close(@NotNull InventoryCloseEvent e) {
+                @Nullable InventoryGraphic graphic = getGraphic(e.getInventory());
+
+                if (graphic != null && graphic.listening) {
+                    graphic.call(null, Kind.CLOSE, e);
+
+                    // The closing player is still a viewer until the event ends
+                    if (!graphic.hasViewers(e.getPlayer())) {
+                        graphic.prune();
+
+                        // The animations are paused until the graphic is opened again
+                        if (graphic.animator != null) AnimationClock.get().unregister(graphic.animator);
+                        graphic.idle();
+                    }
+                }
+            }
+
         }
 
     }
@@ -358,84 +1002,306 @@ public class InventoryGraphic implements Graphic {
         }
     }
 
-    private final class ListenerImpl implements Listener {
-        @EventHandler
-        private void open(@NotNull InventoryOpenEvent e) {
-            if (!listening || !e.getInventory().equals(getHandle())) {
-                return;
-            }
+    /**
+     * Mutates a graphic from any thread.
+     */
+    public class Async {
 
-            call(null, e);
+        protected Async() {
         }
-        @EventHandler
-        private void interact(@NotNull InventoryInteractEvent e) {
-            if (!e.getInventory().equals(getHandle())) {
-                return;
+
+        // Modules
+
+        public @NotNull CompletableFuture<Void> setTitle(@Nullable String title) {
+            return submit(() -> InventoryGraphic.this.setTitle(title));
+        }
+        public @NotNull CompletableFuture<Void> setSize(int size) {
+            return submit(() -> InventoryGraphic.this.setSize(size));
+        }
+        public @NotNull CompletableFuture<Void> setSize(@NotNull Rows rows) {
+            return setSize(rows.getSlots());
+        }
+
+        public <T extends InventoryEvent> @NotNull CompletableFuture<Void> setItem(@Nullable ItemStack item, @Nullable Action<T> action, int @NotNull ... slots) {
+            int @NotNull [] copy = slots.clone();
+            return submit(() -> InventoryGraphic.this.setItem(item, action, copy));
+        }
+        public @NotNull CompletableFuture<Void> setItem(@Nullable ItemStack item, int @NotNull ... slots) {
+            return setItem(item, null, slots);
+        }
+
+        public <T extends InventoryEvent> @NotNull CompletableFuture<Void> setItem(@NotNull HumanEntity human, @Nullable ItemStack item, @Nullable Action<T> action, int @NotNull ... slots) {
+            int @NotNull [] copy = slots.clone();
+            return submit(() -> InventoryGraphic.this.setItem(human, item, action, copy));
+        }
+        public @NotNull CompletableFuture<Void> resetItem(@NotNull HumanEntity human, int @NotNull ... slots) {
+            int @NotNull [] copy = slots.clone();
+            return submit(() -> InventoryGraphic.this.resetItem(human, copy));
+        }
+
+        public @NotNull CompletableFuture<Void> addAction(@Nullable Integer slot, @NotNull Action<?> action) {
+            return submit(() -> getActions(slot).add(action));
+        }
+        public @NotNull CompletableFuture<Void> removeAction(@Nullable Integer slot, @NotNull Action<?> action) {
+            return submit(() -> getActions(slot).remove(action));
+        }
+
+        public @NotNull CompletableFuture<Void> close() {
+            return submit(InventoryGraphic.this::close);
+        }
+
+        public @NotNull CompletableFuture<Void> execute(@NotNull Runnable change) {
+            return submit(change);
+        }
+
+        protected final @NotNull CompletableFuture<Void> submit(@NotNull Runnable change) {
+            @NotNull CompletableFuture<Void> future = new CompletableFuture<>();
+
+            commands.submit(() -> {
+                try {
+                    change.run();
+                    future.complete(null);
+                } catch (@NotNull Throwable throwable) {
+                    future.completeExceptionally(throwable);
+                    throw throwable;
+                }
+            });
+
+            return future;
+        }
+
+    }
+
+    /**
+     * The own inventory of a viewer, at per-viewer graphics.
+     */
+    public class View {
+
+        // Object
+
+        private final @NotNull HumanEntity human;
+
+        private @NotNull Inventory inventory;
+        private @Nullable Inventory displaced;
+
+        // The overlaid slots (one bit per slot), their items and the fingerprints of the items when they were pushed.
+        // The storage is only allocated once a slot is overlaid, views without overlays only cost their inventory
+        private long overlaid = 0L;
+        private long stale = 0L;
+        private @Nullable ItemStack @Nullable [] items;
+        private int @Nullable [] fingerprints;
+
+        private @Nullable ActionTable actions;
+
+        protected View(@NotNull HumanEntity human) {
+            this.human = human;
+            this.inventory = Bukkit.createInventory(holder, getSize(), getTitle());
+
+            inventory.setContents(Arrays.copyOf(shown, getSize()));
+        }
+
+        // Getters
+
+        public final @NotNull InventoryGraphic getGraphic() {
+            return InventoryGraphic.this;
+        }
+        public final @NotNull HumanEntity getHuman() {
+            return human;
+        }
+        public final @NotNull Inventory getInventory() {
+            return inventory;
+        }
+
+        public final boolean isOverlaid(int slot) {
+            return slot >= 0 && slot < ActionTable.SLOTS && (overlaid & (1L << slot)) != 0;
+        }
+        public final @Nullable ItemStack getItem(int slot) {
+            //noinspection DataFlowIssue
+            return isOverlaid(slot) ? items[slot] : shown[slot];
+        }
+
+        public final @NotNull Collection<@NotNull Action<?>> getActions(int slot) {
+            return getActionTable().get(slot);
+        }
+        public final @NotNull ActionTable getActionTable() {
+            if (actions == null) {
+                actions = new ActionTable();
             }
 
-            call(null, e);
+            return actions;
         }
-        @EventHandler
-        private void creativeClick(@NotNull InventoryCreativeEvent e) {
-            if (!Objects.equals(e.getClickedInventory(), getHandle())) {
+
+        // Modules
+
+        public final void setItem(int slot, @Nullable ItemStack item) {
+            if (slot < 0 || slot >= ActionTable.SLOTS) {
+                throw new IllegalArgumentException("invalid slot: " + slot);
+            }
+
+            if (items == null || fingerprints == null) {
+                items = new ItemStack[ActionTable.SLOTS];
+                fingerprints = new int[ActionTable.SLOTS];
+            } else if (isOverlaid(slot) && (stale & (1L << slot)) == 0 && isSame(items[slot], fingerprints[slot], item)) {
                 return;
             }
 
-            call(e.getSlot(), e);
+            if (item != null && item.getType() == Material.AIR) {
+                item = null;
+            }
+
+            overlaid |= 1L << slot;
+            stale &= ~(1L << slot);
+            items[slot] = item;
+            fingerprints[slot] = fingerprint(item);
+
+            if (slot < inventory.getSize()) {
+                inventory.setItem(slot, item != null ? item : SharedItems.air());
+            }
         }
-        @EventHandler
-        private void drag(@NotNull InventoryDragEvent e) {
-            if (!e.getInventory().equals(getHandle())) {
+        public final void reset(int slot) {
+            if (!isOverlaid(slot)) {
                 return;
             }
 
-            call(null, e);
+            overlaid &= ~(1L << slot);
+            //noinspection DataFlowIssue
+            items[slot] = null;
+
+            if (actions != null) {
+                actions.clear(slot);
+            }
+
+            if (slot < inventory.getSize()) {
+                @Nullable ItemStack item = shown[slot];
+                inventory.setItem(slot, item != null ? item : SharedItems.air());
+            }
         }
-        @EventHandler
-        private void click(@NotNull InventoryClickEvent e) {
-            if (!Objects.equals(e.getClickedInventory(), getHandle())) {
-                return;
+
+        protected void release() {
+        }
+
+        private void propagate(int slot, @Nullable ItemStack item) {
+            if (!isOverlaid(slot) && slot < inventory.getSize()) {
+                inventory.setItem(slot, item != null ? item : SharedItems.air());
+            }
+        }
+
+        private void replace() {
+            @NotNull Inventory newly = Bukkit.createInventory(holder, getSize(), getTitle());
+
+            for (int slot = 0; slot < getSize(); slot++) {
+                //noinspection DataFlowIssue
+                newly.setItem(slot, isOverlaid(slot) ? items[slot] : getHandle().getItem(slot));
+            }
+
+            if (displaced == null) {
+                displaced = inventory;
             }
 
-            call(e.getSlot(), e);
+            this.inventory = newly;
         }
-        @EventHandler
-        private void close(@NotNull InventoryCloseEvent e) {
-            if (!listening || !e.getInventory().equals(getHandle())) {
-                return;
-            } else if (!getHandle().getViewers().isEmpty() && activeListener) {
-                HandlerList.unregisterAll(listener);
-                activeListener = false;
+        private void reopen() {
+            @Nullable Inventory old = displaced;
+            displaced = null;
+
+            if (old != null && old != inventory && old.getViewers().contains(human)) {
+                human.openInventory(inventory);
             }
+        }
+
+        // Implementations
 
-            call(null, e);
+        @Override
+        public @NotNull String toString() {
+            return "View{" +
+                    "human=" + human.getName() +
+                    ", overlaid=" + Long.bitCount(overlaid) +
+                    '}';
         }
 
-        @SuppressWarnings("unchecked")
-        private void call(@Nullable Integer slot, @NotNull InventoryEvent e) {
-            for (@NotNull Entry<@Nullable Integer, @NotNull Collection<@NotNull Action<?>>> entry : new LinkedList<>(getActions().entrySet())) {
-                @Nullable Integer actionSlot = entry.getKey();
+    }
 
-                if (actionSlot != null && !Objects.equals(actionSlot, slot)) {
-                    continue;
-                }
+    /**
+     * An immutable snapshot of a graphic, created by {@link #freeze()}.
+     */
+    public static class Prototype {
 
-                //noinspection rawtypes
-                for (@NotNull Action action : new LinkedList<>(entry.getValue())) {
-                    if (action.getReference().isAssignableFrom(e.getClass())) {
-                        try {
-                            action.accept(e);
-                        } catch (@NotNull Throwable throwable) {
-                            if (e instanceof Cancellable) {
-                                ((Cancellable) e).setCancelled(true);
-                                throw new RuntimeException("cannot invoke action '" + entry + "' for event: " + e + ". The event has automatically cancelled to avoid issues.", throwable);
-                            } else {
-                                throw new RuntimeException("cannot invoke action '" + entry + "' for event: " + e, throwable);
-                            }
-                        }
-                    }
-                }
+        // Object
+
+        private final @NotNull Plugin plugin;
+        private final @Nullable String title;
+        private final int size;
+
+        private final @NotNull ActionTable actions;
+        private final @Nullable ItemStack @NotNull [] shown;
+        private final int @NotNull [] fingerprints;
+        private final @Nullable ItemStack @NotNull [] contents;
+        private final boolean perViewer;
+        private final @Nullable Consumer<@NotNull View> initializer;
+
+        protected Prototype(@NotNull InventoryGraphic graphic) {
+            if (graphic.isUpdating()) {
+                throw new IllegalStateException("cannot freeze a graphic during an update");
+            } else if (!graphic.buffer.isEmpty()) {
+                graphic.drain(Long.MAX_VALUE);
             }
+
+            this.plugin = graphic.plugin;
+            this.title = graphic.title;
+            this.size = graphic.getSize();
+            this.actions = graphic.actions.fork();
+
+            // The graphic copies its slots before writing them again
+            this.shown = graphic.shown;
+            this.fingerprints = graphic.fingerprints;
+            this.contents = Arrays.copyOf(shown, size);
+            this.perViewer = graphic.isPerViewer();
+            this.initializer = graphic.initializer;
+
+            graphic.sharedSlots = true;
+        }
+
+        // Getters
+
+        public final @NotNull Plugin getPlugin() {
+            return plugin;
+        }
+        public final @Nullable String getTitle() {
+            return title;
+        }
+        public final int getSize() {
+            return size;
+        }
+
+        // Modules
+
+        public @NotNull InventoryGraphic create() {
+            return new InventoryGraphic(this);
+        }
+
+        // Implementations
+
+        @Override
+        public @NotNull String toString() {
+            return "Prototype{" +
+                    "title='" + title + '\'' +
+                    ", size=" + size +
+                    '}';
+        }
+
+    }
+
+    private final class Holder implements InventoryHolder {
+
+        // Getters
+
+        public @NotNull InventoryGraphic getGraphic() {
+            return InventoryGraphic.this;
+        }
+
+        @Override
+        public @NotNull Inventory getInventory() {
+            return getHandle();
         }
 
     }
@@ -0,0 +1,251 @@
+package dev.meinicke.mc.graphics;
+
+import dev.meinicke.mc.graphics.InventoryGraphic.Action;
+import dev.meinicke.mc.graphics.utils.SharedItems;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.*;
+
+/**
+ * An immutable inventory layout compiled from a character grid, the slots of every symbol are precomputed.
+ */
+public final class Layout {
+
+    // Static initializers
+
+    private static final int COLUMNS = 9;
+
+    public static @NotNull Builder pattern(@NotNull String @NotNull ... rows) {
+        return new Builder(rows);
+    }
+
+    // Object
+
+    private final int size;
+
+    private final @Nullable ItemStack @NotNull [] items = new ItemStack[ActionTable.SLOTS];
+    private final @NotNull Action<?> @Nullable [] @NotNull [] actions = new Action<?>[ActionTable.SLOTS][];
+    private final long mask; // The slots with an item
+
+    private final @Unmodifiable @NotNull Map<@NotNull Character, int @NotNull []> slots;
+
+    private final int @NotNull [] bounds;
+    private final int previous;
+    private final int next;
+    private final int blank;
+
+    private Layout(@NotNull Builder builder) {
+        @NotNull String[] rows = builder.rows;
+
+        if (rows.length < 1 || rows.length > 6) {
+            throw new IllegalArgumentException("a layout must have between 1 and 6 rows, but it has " + rows.length);
+        }
+
+        // Slots of every symbol
+        @NotNull Map<Character, int[]> slots = new LinkedHashMap<>();
+
+        for (int row = 0; row < rows.length; row++) {
+            if (rows[row].length() != COLUMNS) {
+                throw new IllegalArgumentException("the row " + (row + 1) + " of the layout must have " + COLUMNS + " columns: '" + rows[row] + "'");
+            }
+
+            for (int column = 0; column < COLUMNS; column++) {
+                char symbol = rows[row].charAt(column);
+                if (symbol == ' ') continue;
+
+                int slot = row * COLUMNS + column;
+                int @Nullable [] current = slots.get(symbol);
+
+                if (current == null) {
+                    slots.put(symbol, new int[] { slot });
+                } else {
+                    int @NotNull [] grown = Arrays.copyOf(current, current.length + 1);
+                    grown[current.length] = slot;
+                    slots.put(symbol, grown);
+                }
+            }
+        }
+
+        // Validate the symbols
+        for (char symbol : slots.keySet()) {
+            if (!builder.roles.containsKey(symbol)) {
+                throw new IllegalArgumentException("the symbol '" + symbol + "' of the layout isn't mapped");
+            }
+        }
+        for (char symbol : builder.roles.keySet()) {
+            if (!slots.containsKey(symbol)) {
+                throw new IllegalArgumentException("the symbol '" + symbol + "' is mapped but isn't at the layout");
+            }
+        }
+
+        // Compile
+        long mask = 0L;
+        int @NotNull [] bounds = new int[0];
+        int previous = -1, next = -1, blank = -1;
+
+        for (@NotNull Map.Entry<Character, int[]> entry : slots.entrySet()) {
+            @NotNull Role role = builder.roles.get(entry.getKey());
+            int @NotNull [] symbolSlots = entry.getValue();
+
+            if (role.kind == Kind.ITEM) {
+                for (int slot : symbolSlots) {
+                    items[slot] = role.item;
+                    actions[slot] = role.actions.length > 0 ? role.actions : null;
+                    mask |= 1L << slot;
+                }
+            } else if (role.kind == Kind.BOUNDS) {
+                bounds = symbolSlots;
+            } else if (symbolSlots.length != 1) {
+                throw new IllegalArgumentException("the symbol '" + entry.getKey() + "' must be at exactly one slot");
+            } else if (role.kind == Kind.PREVIOUS) {
+                previous = symbolSlots[0];
+            } else if (role.kind == Kind.NEXT) {
+                next = symbolSlots[0];
+            } else {
+                blank = symbolSlots[0];
+            }
+        }
+
+        this.size = rows.length * COLUMNS;
+        this.mask = mask;
+        this.slots = Collections.unmodifiableMap(slots);
+        this.bounds = bounds;
+        this.previous = previous;
+        this.next = next;
+        this.blank = blank;
+    }
+
+    // Getters
+
+    public int getSize() {
+        return size;
+    }
+
+    public int @NotNull [] getSlots(char symbol) {
+        int @Nullable [] slots = this.slots.get(symbol);
+        return slots != null ? slots.clone() : new int[0];
+    }
+    public @NotNull Set<@NotNull Character> getSymbols() {
+        return slots.keySet();
+    }
+
+    public int @NotNull [] getBounds() {
+        return bounds.clone();
+    }
+    public int getPreviousSlot() {
+        return previous;
+    }
+    public int getNextSlot() {
+        return next;
+    }
+    public int getBlankSlot() {
+        return blank;
+    }
+
+    // Modules
+
+    public void apply(@NotNull InventoryGraphic graphic) {
+        graphic.apply(this);
+    }
+
+    void stage(@NotNull SlotBuffer buffer, @NotNull ActionTable table) {
+        buffer.set(items, mask);
+
+        for (long remaining = mask; remaining != 0L; remaining &= remaining - 1) {
+            int slot = Long.numberOfTrailingZeros(remaining);
+            @NotNull Action<?> @Nullable [] actions = this.actions[slot];
+
+            if (actions != null) {
+                for (@NotNull Action<?> action : actions) {
+                    table.add(slot, action);
+                }
+            }
+        }
+    }
+    long getMask() {
+        return mask;
+    }
+
+    // Implementations
+
+    @Override
+    public @NotNull String toString() {
+        return "Layout{" +
+                "size=" + size +
+                ", symbols=" + slots.keySet() +
+                '}';
+    }
+
+    // Classes
+
+    private enum Kind {
+        ITEM, BOUNDS, PREVIOUS, NEXT, BLANK
+    }
+    private static final class Role {
+
+        private final @NotNull Kind kind;
+        private final @Nullable ItemStack item;
+        private final @NotNull Action<?> @NotNull [] actions;
+
+        private Role(@NotNull Kind kind, @Nullable ItemStack item, @NotNull Action<?> @NotNull [] actions) {
+            this.kind = kind;
+            this.item = item;
+            this.actions = actions;
+        }
+
+    }
+
+    public static final class Builder {
+
+        private final @NotNull String @NotNull [] rows;
+        private final @NotNull Map<@NotNull Character, @NotNull Role> roles = new HashMap<>();
+
+        private Builder(@NotNull String @NotNull [] rows) {
+            this.rows = rows.clone();
+        }
+
+        // Modules
+
+        @Contract("_,_,_->this")
+        public @NotNull Builder item(char symbol, @Nullable ItemStack item, @NotNull Action<?> @NotNull ... actions) {
+            return role(symbol, new Role(Kind.ITEM, item != null ? SharedItems.intern(item) : null, actions.clone()));
+        }
+        @Contract("_->this")
+        public @NotNull Builder bounds(char symbol) {
+            return role(symbol, new Role(Kind.BOUNDS, null, new Action<?>[0]));
+        }
+        @Contract("_->this")
+        public @NotNull Builder previous(char symbol) {
+            return role(symbol, new Role(Kind.PREVIOUS, null, new Action<?>[0]));
+        }
+        @Contract("_->this")
+        public @NotNull Builder next(char symbol) {
+            return role(symbol, new Role(Kind.NEXT, null, new Action<?>[0]));
+        }
+        @Contract("_->this")
+        public @NotNull Builder blank(char symbol) {
+            return role(symbol, new Role(Kind.BLANK, null, new Action<?>[0]));
+        }
+
+        private @NotNull Builder role(char symbol, @NotNull Role role) {
+            if (symbol == ' ') {
+                throw new IllegalArgumentException("the space symbol is reserved for the untouched slots");
+            } else if (roles.containsKey(symbol)) {
+                throw new IllegalArgumentException("the symbol '" + symbol + "' is already mapped");
+            }
+
+            roles.put(symbol, role);
+            return this;
+        }
+
+        public @NotNull Layout build() {
+            return new Layout(this);
+        }
+
+    }
+
+}
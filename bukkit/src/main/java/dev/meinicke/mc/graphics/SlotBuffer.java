@@ -0,0 +1,73 @@
+package dev.meinicke.mc.graphics;
+
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * An off-screen copy of the slots of an {@link InventoryGraphic}.
+ */
+public final class SlotBuffer {
+
+    // Object
+
+    private final @Nullable ItemStack @NotNull [] items = new ItemStack[ActionTable.SLOTS];
+    private long staged = 0L; // One bit per slot, 54 slots fit into a long
+
+    public SlotBuffer() {
+    }
+
+    // Getters
+
+    public @Nullable ItemStack get(int slot) {
+        return items[slot];
+    }
+    public boolean isStaged(int slot) {
+        return (staged & (1L << slot)) != 0;
+    }
+    public boolean isEmpty() {
+        return staged == 0L;
+    }
+
+    long getStaged() {
+        return staged;
+    }
+
+    // Modules
+
+    public void set(int slot, @Nullable ItemStack item) {
+        if (slot < 0 || slot >= ActionTable.SLOTS) {
+            throw new IllegalArgumentException("invalid slot: " + slot);
+        }
+
+        items[slot] = item;
+        staged |= 1L << slot;
+    }
+    public void set(@Nullable ItemStack item, int @NotNull ... slots) {
+        for (int slot : slots) {
+            set(slot, item);
+        }
+    }
+
+    void set(@Nullable ItemStack @NotNull [] items, long mask) {
+        for (long remaining = mask; remaining != 0L; remaining &= remaining - 1) {
+            int slot = Long.numberOfTrailingZeros(remaining);
+            this.items[slot] = items[slot];
+        }
+
+        staged |= mask;
+    }
+
+    void unstage(int slot) {
+        items[slot] = null;
+        staged &= ~(1L << slot);
+    }
+
+    public void clear() {
+        Arrays.fill(items, null);
+        staged = 0L;
+    }
+
+}
@@ -0,0 +1,120 @@
+package dev.meinicke.mc.graphics;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.logging.Level;
+
+/**
+ * Coalesces the slot updates of all inventory graphics into one flush per server tick.
+ */
+final class UpdateScheduler implements Runnable {
+
+    // Static initializers
+
+    private static volatile @Nullable UpdateScheduler instance;
+
+    static @Nullable UpdateScheduler get() {
+        @Nullable UpdateScheduler scheduler = instance;
+
+        // The task of a disabled plugin was cancelled, nothing would flush the graphics anymore
+        if (scheduler != null && !scheduler.plugin.isEnabled()) {
+            stop();
+            return null;
+        }
+
+        return scheduler;
+    }
+
+    static synchronized void start(@NotNull Plugin plugin, long budget) {
+        if (budget <= 0) {
+            throw new IllegalArgumentException("the flush budget must be positive");
+        }
+
+        stop();
+
+        @NotNull UpdateScheduler scheduler = new UpdateScheduler(plugin, budget);
+        scheduler.task = Bukkit.getScheduler().runTaskTimer(plugin, scheduler, 1L, 1L);
+
+        instance = scheduler;
+    }
+    static synchronized void stop() {
+        @Nullable UpdateScheduler scheduler = instance;
+        instance = null;
+
+        if (scheduler != null) {
+            if (scheduler.task != null) {
+                scheduler.task.cancel();
+            }
+
+            // Nothing can be left staged
+            scheduler.run(Long.MAX_VALUE);
+        }
+    }
+
+    // Object
+
+    private final @NotNull Plugin plugin;
+    private final long budget; // In nanoseconds, per graphic and flush
+    private @Nullable BukkitTask task;
+
+    // The dirty graphics in the order they will be flushed, each one is queued once (see InventoryGraphic#scheduled)
+    private final @NotNull Queue<@NotNull InventoryGraphic> dirty = new ArrayDeque<>();
+
+    private UpdateScheduler(@NotNull Plugin plugin, long budget) {
+        this.plugin = plugin;
+        this.budget = budget;
+    }
+
+    // Getters
+
+    public long getBudget() {
+        return budget;
+    }
+
+    // Modules
+
+    void mark(@NotNull InventoryGraphic graphic) {
+        if (!graphic.scheduled) {
+            graphic.scheduled = true;
+            dirty.add(graphic);
+        }
+    }
+
+    @Override
+    public void run() {
+        run(budget);
+    }
+    private void run(long budget) {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        // Only the graphics already dirty are flushed, the carried over ones go to the end of the queue
+        for (int remaining = dirty.size(); remaining > 0; remaining--) {
+            @NotNull InventoryGraphic graphic = dirty.remove();
+            graphic.scheduled = false;
+
+            if (graphic.isClosed()) {
+                graphic.getBuffer().clear();
+                continue;
+            }
+
+            try {
+                if (!graphic.drain(budget)) {
+                    // Carried over to the next tick, after the other graphics
+                    mark(graphic);
+                }
+            } catch (@NotNull Throwable throwable) {
+                graphic.getBuffer().clear();
+                graphic.getPlugin().getLogger().log(Level.SEVERE, "cannot flush the slots of inventory graphic: " + graphic, throwable);
+            }
+        }
+    }
+
+}
@@ -3,6 +3,7 @@ package dev.meinicke.mc.graphics.paged;
 import dev.meinicke.mc.graphics.InventoryGraphic.AbstractAction;
 import dev.meinicke.mc.graphics.InventoryGraphic.Action;
 import dev.meinicke.mc.graphics.utils.ItemBuilder;
+import dev.meinicke.mc.graphics.utils.SharedItems;
 import org.bukkit.Material;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.ItemStack;
@@ -31,6 +32,8 @@ public class BlankItem {
         DEFAULT_MATERIAL = material;
     }
 
+    private static final @NotNull ItemStack DEFAULT_ITEM = SharedItems.intern(new ItemBuilder(DEFAULT_MATERIAL).name("§cEmpty!").lore("§7There's nothing here to explore."));
+
     public static @NotNull BlankItem create(
             @Range(from = 0, to = 53) int slot
     ) {
@@ -55,7 +58,8 @@ public class BlankItem {
             @Range(from = 0, to = 53)
             int slot
     ) {
-        this(slot, new ItemBuilder(DEFAULT_MATERIAL).name("§cEmpty!").lore("§7There's nothing here to explore.").build());
+        // The default item is shared by every blank item, it's read-only
+        this(slot, DEFAULT_ITEM);
     }
     public BlankItem(
             @Range(from = 0, to = 53)
@@ -90,6 +94,20 @@ public class BlankItem {
         return actions;
     }
 
+    // Modules
+
+    public @NotNull BlankItem withSlot(@Range(from = 0, to = 53) int slot) {
+        if (slot == this.slot) {
+            return this;
+        }
+
+        @NotNull BlankItem blankItem = new BlankItem(slot, itemStack);
+        blankItem.actions.clear();
+        blankItem.actions.addAll(actions);
+
+        return blankItem;
+    }
+
     // Natives
 
     @Override
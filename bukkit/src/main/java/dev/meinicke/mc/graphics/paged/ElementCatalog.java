@@ -0,0 +1,365 @@
+package dev.meinicke.mc.graphics.paged;
+
+import dev.meinicke.mc.graphics.paged.PagedInventoryGraphic.Element;
+import dev.meinicke.mc.graphics.utils.ItemCodec;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiFunction;
+
+/**
+ * A disk-backed element source for huge catalogs. The appended entries are written to the disk by {@link #flush()}
+ * and {@link #close()}, or by every append if it's durable.
+ */
+public final class ElementCatalog implements ElementSource, Closeable {
+
+    // Static initializers
+
+    private static final int MAGIC = 0x47434154; // "GCAT"
+    private static final int VERSION = 1;
+
+    // The files are mapped in segments, entries never cross a segment boundary. The index is far smaller
+    // than the data (8 bytes per entry), so its segments are too
+    private static final int SEGMENT_BITS = 26;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+    private static final int INDEX_SEGMENT_BITS = 20;
+
+    // Index header: magic, version, entries count and data end
+    private static final int HEADER = 32;
+
+    public static @NotNull ElementCatalog open(@NotNull Path path) throws IOException {
+        return new ElementCatalog(path, (index, item) -> Element.create(item));
+    }
+    public static @NotNull ElementCatalog open(@NotNull Path path, @NotNull BiFunction<@NotNull Integer, @NotNull ItemStack, @NotNull Element> factory) throws IOException {
+        return new ElementCatalog(path, factory);
+    }
+
+    // Object
+
+    private final @NotNull MappedFile data;
+    private final @NotNull MappedFile index;
+    private final @NotNull BiFunction<@NotNull Integer, @NotNull ItemStack, @NotNull Element> factory;
+
+    private int size;
+    private long end; // The data end offset
+
+    // The entries counted by the header, the ones after it are lost by a crash
+    private int committedSize;
+    private long committedEnd;
+    private boolean durable = false;
+
+    private final @NotNull List<@NotNull Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    private ElementCatalog(@NotNull Path path, @NotNull BiFunction<@NotNull Integer, @NotNull ItemStack, @NotNull Element> factory) throws IOException {
+        this.factory = factory;
+        this.data = new MappedFile(path, SEGMENT_BITS);
+
+        try {
+            this.index = new MappedFile(path.resolveSibling(path.getFileName() + ".idx"), INDEX_SEGMENT_BITS);
+        } catch (@NotNull IOException e) {
+            data.close();
+            throw e;
+        }
+
+        try {
+            @NotNull ByteBuffer header = index.segment(0);
+
+            if (index.isEmpty()) {
+                header.putInt(0, MAGIC);
+                header.putInt(4, VERSION);
+                header.putLong(8, 0L);
+                header.putLong(16, 0L);
+            } else if (header.getInt(0) != MAGIC) {
+                throw new IOException("the file '" + path + "' isn't an element catalog");
+            } else if (header.getInt(4) != VERSION) {
+                throw new IOException("unsupported element catalog version: " + header.getInt(4));
+            }
+
+            this.size = this.committedSize = (int) header.getLong(8);
+            this.end = this.committedEnd = header.getLong(16);
+        } catch (@NotNull IOException | @NotNull RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    // Getters
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized @NotNull Element get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for length " + size);
+        }
+
+        try {
+            return factory.apply(index, read(index));
+        } catch (@NotNull IOException e) {
+            throw new RuntimeException("cannot read entry " + index + " of element catalog", e);
+        }
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    public synchronized boolean isDurable() {
+        return durable;
+    }
+    public synchronized void setDurable(boolean durable) {
+        this.durable = durable;
+    }
+
+    @Override
+    public synchronized @NotNull List<@NotNull Element> fetch(int offset, int length) {
+        int from = Math.min(size, Math.max(0, offset));
+        int to = (int) Math.min(size, (long) from + Math.max(0, length));
+
+        // Only the requested entries are decoded
+        @NotNull List<@NotNull Element> elements = new ArrayList<>(to - from);
+
+        for (int index = from; index < to; index++) {
+            elements.add(get(index));
+        }
+
+        return elements;
+    }
+
+    // Modules
+
+    public int append(@NotNull ItemStack item) throws IOException {
+        return appendAll(Collections.singletonList(item));
+    }
+    public int append(@NotNull Element element) throws IOException {
+        return append(element.getItemStack());
+    }
+    public int appendAll(@NotNull Collection<? extends @NotNull ItemStack> items) throws IOException {
+        int first;
+
+        synchronized (this) {
+            if (data.isClosed()) {
+                throw new IllegalStateException("this element catalog is closed");
+            }
+
+            first = size;
+
+            for (@NotNull ItemStack item : items) {
+                write(item);
+            }
+
+            if (durable) {
+                commit();
+            }
+        }
+
+        for (@NotNull Runnable listener : listeners) {
+            listener.run();
+        }
+
+        return first;
+    }
+
+    public synchronized void flush() throws IOException {
+        if (!data.isClosed()) {
+            commit();
+        }
+    }
+
+    @Override
+    public void addListener(@NotNull Runnable listener) {
+        listeners.add(listener);
+    }
+    @Override
+    public void removeListener(@NotNull Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        boolean open = !data.isClosed();
+
+        try {
+            if (open) {
+                flush();
+            }
+        } finally {
+            try {
+                data.close(open ? end : -1L);
+            } finally {
+                index.close(open ? HEADER + (long) size * Long.BYTES : -1L);
+            }
+        }
+    }
+
+    // Utilities
+
+    private void commit() throws IOException {
+        if (size == committedSize) {
+            return;
+        }
+
+        // The entries are written to the disk before the header counts them, so a crash never exposes
+        // a partial entry
+        data.force(committedEnd, end);
+        index.force(HEADER + (long) committedSize * Long.BYTES, HEADER + (long) size * Long.BYTES);
+
+        @NotNull ByteBuffer header = index.segment(0);
+        header.putLong(8, size);
+        header.putLong(16, end);
+        index.force(0, HEADER);
+
+        committedSize = size;
+        committedEnd = end;
+    }
+
+    private void write(@NotNull ItemStack item) throws IOException {
+        @NotNull ItemCodec.Encoder encoder = new ItemCodec.Encoder();
+        encoder.writeItem(item);
+
+        @NotNull ByteBuffer bytes = encoder.finish();
+        int length = Integer.BYTES + bytes.remaining();
+
+        if (length > SEGMENT_SIZE) {
+            throw new IllegalArgumentException("the encoded item is larger than a catalog segment");
+        }
+
+        // Skips to the next segment if the entry doesn't fit at the current one
+        long offset = end;
+        if ((offset >>> SEGMENT_BITS) != ((offset + length - 1) >>> SEGMENT_BITS)) {
+            offset = ((offset >>> SEGMENT_BITS) + 1) << SEGMENT_BITS;
+        }
+
+        @NotNull ByteBuffer segment = data.segment((int) (offset >>> SEGMENT_BITS));
+        segment.position((int) (offset & (SEGMENT_SIZE - 1)));
+        segment.putInt(bytes.remaining());
+        segment.put(bytes);
+
+        index.putLong(HEADER + (long) size * Long.BYTES, offset);
+
+        end = offset + length;
+        size++;
+    }
+    private @NotNull ItemStack read(int entry) throws IOException {
+        long offset = index.getLong(HEADER + (long) entry * Long.BYTES);
+
+        @NotNull ByteBuffer segment = data.segment((int) (offset >>> SEGMENT_BITS));
+        segment.position((int) (offset & (SEGMENT_SIZE - 1)));
+
+        int length = segment.getInt();
+        segment.limit(segment.position() + length);
+
+        @Nullable ItemStack item = new ItemCodec.Decoder(segment).readItem();
+
+        if (item == null) {
+            throw new IOException("the entry " + entry + " has no item");
+        }
+
+        return item;
+    }
+
+    // Implementations
+
+    @Override
+    public @NotNull String toString() {
+        return "ElementCatalog{" +
+                "size=" + size +
+                ", bytes=" + end +
+                '}';
+    }
+
+    // Classes
+
+    /**
+     * A file mapped in fixed size segments, they're mapped once when first used.
+     */
+    private static final class MappedFile implements Closeable {
+
+        private final @NotNull FileChannel channel;
+        private final boolean empty;
+        private final int bits; // The segment size is 2^bits
+        private final @NotNull List<@Nullable MappedByteBuffer> segments = new ArrayList<>();
+
+        private MappedFile(@NotNull Path path, int bits) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.empty = channel.size() == 0;
+            this.bits = bits;
+        }
+
+        // Getters
+
+        public boolean isEmpty() {
+            return empty;
+        }
+        public boolean isClosed() {
+            return !channel.isOpen();
+        }
+
+        public @NotNull ByteBuffer segment(int index) throws IOException {
+            while (segments.size() <= index) {
+                segments.add(null);
+            }
+
+            @Nullable MappedByteBuffer segment = segments.get(index);
+
+            if (segment == null) {
+                // Mapping beyond the end grows the file, the unused space is sparse at most file systems
+                // and it's truncated on close
+                segment = channel.map(MapMode.READ_WRITE, (long) index << bits, 1L << bits);
+                segments.set(index, segment);
+            }
+
+            return segment.duplicate();
+        }
+
+        public long getLong(long position) throws IOException {
+            return segment((int) (position >>> bits)).getLong((int) (position & ((1L << bits) - 1)));
+        }
+        public void putLong(long position, long value) throws IOException {
+            segment((int) (position >>> bits)).putLong((int) (position & ((1L << bits) - 1)), value);
+        }
+
+        // Modules
+
+        public void force(long from, long to) {
+            for (int index = (int) (from >>> bits); index < segments.size() && ((long) index << bits) < to; index++) {
+                @Nullable MappedByteBuffer segment = segments.get(index);
+                if (segment != null) segment.force();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            close(-1L);
+        }
+        public void close(long length) throws IOException {
+            segments.clear();
+
+            try {
+                if (length >= 0 && channel.isOpen()) {
+                    channel.truncate(length);
+                }
+            } catch (@NotNull IOException ignore) {
+                // Some platforms cannot truncate a file while it's still mapped, it's only kept larger
+            } finally {
+                channel.close();
+            }
+        }
+
+    }
+
+}
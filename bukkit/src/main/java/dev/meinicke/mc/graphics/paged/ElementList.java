@@ -0,0 +1,249 @@
+package dev.meinicke.mc.graphics.paged;
+
+import dev.meinicke.mc.graphics.paged.PagedInventoryGraphic.Element;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * The array-backed element container of a {@link PagedInventoryGraphic}.
+ */
+public final class ElementList extends AbstractList<@NotNull Element> implements ElementSource, RandomAccess {
+
+    // Static initializers
+
+    private static final @NotNull Element @NotNull [] EMPTY = new Element[0];
+
+    // Object
+
+    private @NotNull Element @NotNull [] elements = EMPTY;
+    private int size = 0;
+    private boolean shared = false; // The array is shared with forks, it's copied before the first write
+
+    private final @NotNull List<@NotNull ElementView> views = new ArrayList<>();
+
+    public ElementList() {
+    }
+    private ElementList(@NotNull ElementList list) {
+        this.elements = list.elements;
+        this.size = list.size;
+        this.shared = true;
+    }
+
+    // Getters
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public @NotNull Element get(int index) {
+        checkIndex(index, size);
+        return elements[index];
+    }
+
+    @Override
+    public @NotNull List<@NotNull Element> fetch(int offset, int length) {
+        int from = Math.min(size, Math.max(0, offset));
+        int to = (int) Math.min(size, (long) from + Math.max(0, length));
+
+        return subList(from, to);
+    }
+
+    // Views
+
+    public @NotNull ElementView view(@Nullable Predicate<? super @NotNull Element> filter, @Nullable Comparator<? super @NotNull Element> order) {
+        @NotNull ElementView view = new ElementView(this, filter, order, null);
+        views.add(view);
+
+        return view;
+    }
+    public @NotNull ElementView searchable(@Nullable Predicate<? super @NotNull Element> filter, @NotNull Function<? super @NotNull Element, @NotNull String> key) {
+        @NotNull ElementView view = new ElementView(this, filter, null, key);
+        views.add(view);
+
+        return view;
+    }
+    public void removeView(@NotNull ElementView view) {
+        views.remove(view);
+    }
+
+    // Modules
+
+    @NotNull ElementList fork() {
+        shared = true;
+        return new ElementList(this);
+    }
+
+    @Override
+    public @NotNull Element set(int index, @NotNull Element element) {
+        checkIndex(index, size);
+        Objects.requireNonNull(element, "element cannot be null");
+
+        own();
+
+        @NotNull Element old = elements[index];
+        elements[index] = element;
+
+        for (@NotNull ElementView view : views) {
+            view.removed(old);
+            view.added(index, element, false);
+        }
+
+        return old;
+    }
+
+    @Override
+    public void add(int index, @NotNull Element element) {
+        checkIndex(index, size + 1);
+        Objects.requireNonNull(element, "element cannot be null");
+
+        grow(size + 1);
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+
+        elements[index] = element;
+        size++;
+        modCount++;
+
+        for (@NotNull ElementView view : views) {
+            view.added(index, element, index == size - 1);
+        }
+    }
+    @Override
+    public boolean addAll(@NotNull Collection<? extends @NotNull Element> collection) {
+        return addAll(size, collection);
+    }
+    @Override
+    public boolean addAll(int index, @NotNull Collection<? extends @NotNull Element> collection) {
+        checkIndex(index, size + 1);
+
+        @NotNull Object[] array = collection.toArray();
+        for (@Nullable Object object : array) {
+            Objects.requireNonNull(object, "element cannot be null");
+        }
+
+        if (array.length == 0) {
+            return false;
+        }
+
+        grow(size + array.length);
+        System.arraycopy(elements, index, elements, index + array.length, size - index);
+        System.arraycopy(array, 0, elements, index, array.length);
+
+        size += array.length;
+        modCount++;
+
+        boolean appended = index + array.length == size;
+
+        @NotNull Element[] added = Arrays.copyOf(array, array.length, Element[].class);
+
+        for (@NotNull ElementView view : views) {
+            view.addedAll(index, added, appended);
+        }
+
+        return true;
+    }
+
+    @Override
+    public @NotNull Element remove(int index) {
+        checkIndex(index, size);
+
+        own();
+
+        @NotNull Element old = elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+
+        //noinspection DataFlowIssue
+        elements[--size] = null;
+        modCount++;
+
+        for (@NotNull ElementView view : views) {
+            view.removed(old);
+        }
+
+        return old;
+    }
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex >= toIndex) {
+            return;
+        }
+
+        for (@NotNull ElementView view : views) {
+            for (int index = fromIndex; index < toIndex; index++) {
+                view.removed(elements[index]);
+            }
+        }
+
+        own();
+        System.arraycopy(elements, toIndex, elements, fromIndex, size - toIndex);
+        Arrays.fill(elements, size - (toIndex - fromIndex), size, null);
+
+        size -= toIndex - fromIndex;
+        modCount++;
+    }
+    @Override
+    public void clear() {
+        if (shared) {
+            elements = EMPTY;
+            shared = false;
+        } else {
+            Arrays.fill(elements, 0, size, null);
+        }
+
+        size = 0;
+        modCount++;
+
+        for (@NotNull ElementView view : views) {
+            view.cleared();
+        }
+    }
+
+    public void move(int from, int to) {
+        checkIndex(from, size);
+        checkIndex(to, size);
+
+        own();
+        @NotNull Element element = elements[from];
+
+        if (from < to) {
+            System.arraycopy(elements, from + 1, elements, from, to - from);
+        } else if (from > to) {
+            System.arraycopy(elements, to, elements, to + 1, from - to);
+        }
+
+        elements[to] = element;
+        modCount++;
+
+        for (@NotNull ElementView view : views) {
+            view.moved(element, from, to);
+        }
+    }
+
+    // Utilities
+
+    private void grow(int capacity) {
+        if (capacity > elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(capacity, Math.max(10, elements.length + (elements.length >> 1))));
+            shared = false;
+        } else {
+            own();
+        }
+    }
+    private void own() {
+        if (shared) {
+            elements = elements.clone();
+            shared = false;
+        }
+    }
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for length " + size);
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+package dev.meinicke.mc.graphics.paged;
+
+import dev.meinicke.mc.graphics.paged.PagedInventoryGraphic.Element;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+
+/**
+ * Provides the elements of a {@link PagedInventoryGraphic}.
+ */
+public interface ElementSource {
+
+    // Static initializers
+
+    static @NotNull ElementSource lazy(@NotNull IntSupplier size, @NotNull IntFunction<@NotNull Element> factory) {
+        return new ElementSource() {
+            @Override
+            public int size() {
+                return size.getAsInt();
+            }
+            @Override
+            public @NotNull List<@NotNull Element> fetch(int offset, int length) {
+                int available = Math.max(0, Math.min(length, size() - offset));
+
+                return new AbstractList<Element>() {
+                    @Override
+                    public @NotNull Element get(int index) {
+                        if (index < 0 || index >= available) {
+                            throw new IndexOutOfBoundsException("index " + index + " out of bounds for length " + available);
+                        }
+
+                        return factory.apply(offset + index);
+                    }
+                    @Override
+                    public int size() {
+                        return available;
+                    }
+                };
+            }
+        };
+    }
+
+    // Object
+
+    int size();
+
+    @NotNull List<@NotNull Element> fetch(int offset, int length);
+
+    default boolean isThreadSafe() {
+        return false;
+    }
+
+    default void addListener(@NotNull Runnable listener) {
+    }
+    default void removeListener(@NotNull Runnable listener) {
+    }
+
+}
@@ -0,0 +1,456 @@
+package dev.meinicke.mc.graphics.paged;
+
+import dev.meinicke.mc.graphics.paged.PagedInventoryGraphic.Element;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.UnmodifiableView;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A filtered and optionally sorted view over an {@link ElementList}, maintained incrementally while the list changes.
+ */
+public final class ElementView implements ElementSource {
+
+    // Static initializers
+
+    private static final @NotNull Element @NotNull [] EMPTY = new Element[0];
+
+    static @Nullable ElementList getBacking(@NotNull ElementSource source) {
+        if (source instanceof ElementList) {
+            return (ElementList) source;
+        } else if (source instanceof ElementView) {
+            return ((ElementView) source).list;
+        } else if (source instanceof Search) {
+            return ((Search) source).getView().list;
+        } else {
+            return null;
+        }
+    }
+
+    // Object
+
+    private final @NotNull ElementList list;
+
+    private final @Nullable Predicate<? super @NotNull Element> filter;
+    private final @Nullable Comparator<? super @NotNull Element> order; // Null keeps the list order
+    private final @Nullable Function<? super @NotNull Element, @NotNull String> key;
+
+    private @NotNull Element @NotNull [] elements = EMPTY;
+    private @NotNull String @Nullable [] keys; // The lower case keys, parallel to the elements, only at searchable views
+    private int size = 0;
+
+    ElementView(@NotNull ElementList list, @Nullable Predicate<? super @NotNull Element> filter, @Nullable Comparator<? super @NotNull Element> order, @Nullable Function<? super @NotNull Element, @NotNull String> key) {
+        this.list = list;
+        this.filter = filter;
+        this.order = order;
+        this.key = key;
+
+        rebuild();
+    }
+
+    // Getters
+
+    public @NotNull ElementList getList() {
+        return list;
+    }
+    public boolean isSearchable() {
+        return key != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+    public @NotNull Element get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for length " + size);
+        }
+
+        return elements[index];
+    }
+
+    @Override
+    public @UnmodifiableView @NotNull List<@NotNull Element> fetch(int offset, int length) {
+        return range(0, size, offset, length);
+    }
+
+    public @NotNull Search search(@NotNull String prefix) {
+        if (key == null) {
+            throw new IllegalStateException("this view has no name key, it isn't searchable");
+        }
+
+        return new Search(prefix.toLowerCase(Locale.ROOT));
+    }
+
+    // Modules
+
+    public void rebuild() {
+        @NotNull List<@NotNull Element> matching = new ArrayList<>();
+
+        for (@NotNull Element element : list) {
+            if (filter == null || filter.test(element)) {
+                matching.add(element);
+            }
+        }
+
+        if (key != null) {
+            @NotNull String[] keys = new String[matching.size()];
+            @NotNull Integer[] indexes = new Integer[keys.length];
+
+            for (int index = 0; index < keys.length; index++) {
+                keys[index] = key(matching.get(index));
+                indexes[index] = index;
+            }
+
+            // Stable sort by key, the equal keys keep the list order
+            Arrays.sort(indexes, Comparator.comparing(index -> keys[index]));
+
+            this.elements = new Element[keys.length];
+            this.keys = new String[keys.length];
+
+            for (int index = 0; index < keys.length; index++) {
+                this.elements[index] = matching.get(indexes[index]);
+                this.keys[index] = keys[indexes[index]];
+            }
+        } else {
+            if (order != null) {
+                matching.sort(order);
+            }
+
+            this.elements = matching.toArray(EMPTY);
+        }
+
+        this.size = elements.length;
+    }
+
+    // Incremental maintenance, called by the element list
+
+    void added(int index, @NotNull Element element, boolean appended) {
+        if (filter != null && !filter.test(element)) {
+            return;
+        }
+
+        int position;
+        @Nullable String key = null;
+
+        if (this.key != null) {
+            key = key(element);
+            position = appended ? upper(key) : tie(lower(key), upper(key), index);
+        } else if (order != null) {
+            position = appended ? upper(element) : tie(lower(element), upper(element), index);
+        } else if (appended) {
+            position = size;
+        } else if (filter == null) {
+            position = index;
+        } else {
+            // The position is the amount of matching elements before the index, or the view size without
+            // the ones after it. Counts at the shorter side
+            position = 0;
+
+            if (index < list.size() - index) {
+                for (int row = 0; row < index; row++) {
+                    if (filter.test(list.get(row))) position++;
+                }
+            } else {
+                position = size;
+
+                for (int row = index + 1; row < list.size(); row++) {
+                    if (filter.test(list.get(row))) position--;
+                }
+            }
+        }
+
+        insert(position, element, key);
+    }
+    void addedAll(int index, @NotNull Element @NotNull [] elements, boolean appended) {
+        if (appended || key != null || order != null || filter == null) {
+            for (int row = 0; row < elements.length; row++) {
+                added(index + row, elements[row], appended);
+            }
+
+            return;
+        }
+
+        // The matching elements before the index are counted once, the position of the next ones follows
+        int position = 0;
+
+        for (int row = 0; row < index; row++) {
+            if (filter.test(list.get(row))) position++;
+        }
+
+        for (@NotNull Element element : elements) {
+            if (filter.test(element)) {
+                insert(position++, element, null);
+            }
+        }
+    }
+    void removed(@NotNull Element element) {
+        // Found by identity, the filter may not match the element anymore
+        int position = indexOf(element);
+        if (position == -1) return;
+
+        System.arraycopy(elements, position + 1, elements, position, size - position - 1);
+        //noinspection DataFlowIssue
+        elements[size - 1] = null;
+
+        if (keys != null) {
+            System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+            keys[size - 1] = null;
+        }
+
+        size--;
+    }
+    void moved(@NotNull Element element, int from, int to) {
+        // Only the views at the list order depend on the positions
+        if (key != null || order != null) {
+            return;
+        }
+
+        int position;
+        int target;
+
+        if (filter == null) {
+            // The view has every element at the list positions
+            position = from;
+            target = to;
+        } else {
+            position = indexOf(element);
+            if (position == -1) return;
+
+            // The element passes over the matching elements it was moved across, they're one index back or
+            // forth now at the list
+            int first = from < to ? from : to + 1;
+            int last = from < to ? to - 1 : from;
+            int passed = 0;
+
+            for (int row = first; row <= last; row++) {
+                if (filter.test(list.get(row))) {
+                    passed++;
+                }
+            }
+
+            target = from < to ? position + passed : position - passed;
+        }
+
+        // Only the elements between both positions are shifted
+        if (position < target) {
+            System.arraycopy(elements, position + 1, elements, position, target - position);
+        } else if (position > target) {
+            System.arraycopy(elements, target, elements, target + 1, position - target);
+        }
+
+        elements[target] = element;
+    }
+    void cleared() {
+        Arrays.fill(elements, 0, size, null);
+        if (keys != null) Arrays.fill(keys, 0, size, null);
+
+        size = 0;
+    }
+
+    // Utilities
+
+    private @NotNull String key(@NotNull Element element) {
+        //noinspection DataFlowIssue
+        return key.apply(element).toLowerCase(Locale.ROOT);
+    }
+
+    private void insert(int position, @NotNull Element element, @Nullable String key) {
+        grow(size + 1);
+        System.arraycopy(elements, position, elements, position + 1, size - position);
+        elements[position] = element;
+
+        if (keys != null) {
+            System.arraycopy(keys, position, keys, position + 1, size - position);
+            keys[position] = key;
+        }
+
+        size++;
+    }
+    private int tie(int from, int to, int index) {
+        if (from == to) {
+            return from;
+        }
+
+        // The equal elements are ordered by their list position like at #rebuild(), the equal ones at the
+        // shorter side of the list index are counted
+        @NotNull Set<@NotNull Element> equal = Collections.newSetFromMap(new IdentityHashMap<>());
+        equal.addAll(Arrays.asList(elements).subList(from, to));
+
+        int count = 0;
+
+        if (index < list.size() - index) {
+            for (int row = 0; row < index && count < equal.size(); row++) {
+                if (equal.contains(list.get(row))) count++;
+            }
+
+            return from + count;
+        } else {
+            for (int row = list.size() - 1; row > index && count < equal.size(); row--) {
+                if (equal.contains(list.get(row))) count++;
+            }
+
+            return to - count;
+        }
+    }
+
+    private int indexOf(@NotNull Element element) {
+        int from = 0;
+        int to = size;
+
+        // Narrows to the range of equal keys, then the element is found by identity
+        if (key != null) {
+            @NotNull String key = key(element);
+
+            from = lower(key);
+            to = upper(key);
+        } else if (order != null) {
+            from = lower(element);
+            to = upper(element);
+        }
+
+        for (int index = from; index < to; index++) {
+            if (elements[index] == element) {
+                return index;
+            }
+        }
+
+        // The sort key of the element changed, fallback to a linear search
+        if (from == 0 && to == size) {
+            return -1;
+        }
+
+        for (int index = 0; index < size; index++) {
+            if (elements[index] == element) {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
+    private int lower(@NotNull String key) {
+        return bound(key, false);
+    }
+    private int upper(@NotNull String key) {
+        return bound(key, true);
+    }
+    private int bound(@NotNull String key, boolean upper) {
+        @NotNull String[] keys = Objects.requireNonNull(this.keys);
+        int low = 0;
+        int high = size;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = keys[middle].compareTo(key);
+
+            if (comparison < 0 || (upper && comparison == 0)) low = middle + 1;
+            else high = middle;
+        }
+
+        return low;
+    }
+
+    private int lower(@NotNull Element element) {
+        return bound(element, false);
+    }
+    private int upper(@NotNull Element element) {
+        return bound(element, true);
+    }
+    private int bound(@NotNull Element element, boolean upper) {
+        @NotNull Comparator<? super @NotNull Element> order = Objects.requireNonNull(this.order);
+        int low = 0;
+        int high = size;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = order.compare(elements[middle], element);
+
+            if (comparison < 0 || (upper && comparison == 0)) low = middle + 1;
+            else high = middle;
+        }
+
+        return low;
+    }
+
+    private @UnmodifiableView @NotNull List<@NotNull Element> range(int from, int to, int offset, int length) {
+        int start = (int) Math.min(to, from + (long) Math.max(0, offset));
+        int end = (int) Math.min(to, start + (long) Math.max(0, length));
+
+        return Collections.unmodifiableList(Arrays.asList(elements).subList(start, end));
+    }
+    private void grow(int capacity) {
+        if (capacity > elements.length) {
+            int length = Math.max(capacity, Math.max(10, elements.length + (elements.length >> 1)));
+
+            elements = Arrays.copyOf(elements, length);
+            if (keys != null) keys = Arrays.copyOf(keys, length);
+        }
+    }
+
+    // Implementations
+
+    @Override
+    public @NotNull String toString() {
+        return "ElementView{" +
+                "size=" + size +
+                ", sorted=" + (order != null || key != null) +
+                ", searchable=" + isSearchable() +
+                '}';
+    }
+
+    // Classes
+
+    /**
+     * The live range of a searchable view whose keys start with a prefix.
+     */
+    public final class Search implements ElementSource {
+
+        private final @NotNull String prefix;
+
+        private Search(@NotNull String prefix) {
+            this.prefix = prefix;
+        }
+
+        // Getters
+
+        public @NotNull ElementView getView() {
+            return ElementView.this;
+        }
+        public @NotNull String getPrefix() {
+            return prefix;
+        }
+
+        private int from() {
+            return lower(prefix);
+        }
+        private int to() {
+            // Every key starting with the prefix is lower than the prefix followed by the highest char
+            return lower(prefix + Character.MAX_VALUE);
+        }
+
+        @Override
+        public int size() {
+            return to() - from();
+        }
+        @Override
+        public @UnmodifiableView @NotNull List<@NotNull Element> fetch(int offset, int length) {
+            return range(from(), to(), offset, length);
+        }
+
+        // Implementations
+
+        @Override
+        public @NotNull String toString() {
+            return "Search{" +
+                    "prefix='" + prefix + '\'' +
+                    ", size=" + size() +
+                    '}';
+        }
+
+    }
+
+}
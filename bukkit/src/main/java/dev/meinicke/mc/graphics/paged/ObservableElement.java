@@ -0,0 +1,74 @@
+package dev.meinicke.mc.graphics.paged;
+
+import dev.meinicke.mc.graphics.InventoryGraphic.Action;
+import dev.meinicke.mc.graphics.paged.PagedInventoryGraphic.Element;
+import org.bukkit.event.inventory.InventoryEvent;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * A mutable element that notifies its changes.
+ */
+public class ObservableElement implements Element {
+
+    // Object
+
+    private volatile @NotNull ItemStack itemStack;
+    private final @NotNull Collection<Action<? extends InventoryEvent>> actions = new LinkedList<>();
+
+    private final @NotNull List<@NotNull Consumer<@NotNull Element>> listeners = new CopyOnWriteArrayList<>();
+
+    public ObservableElement(@NotNull ItemStack itemStack) {
+        this.itemStack = itemStack;
+    }
+
+    // Getters
+
+    @Override
+    public @NotNull ItemStack getItemStack() {
+        return itemStack;
+    }
+    public void setItemStack(@NotNull ItemStack itemStack) {
+        this.itemStack = itemStack;
+        update();
+    }
+
+    @Override
+    public @NotNull Collection<Action<? extends InventoryEvent>> getActions() {
+        return actions;
+    }
+
+    // Modules
+
+    public void update() {
+        for (@NotNull Consumer<@NotNull Element> listener : listeners) {
+            listener.accept(this);
+        }
+    }
+
+    @Override
+    public void addListener(@NotNull Consumer<@NotNull Element> listener) {
+        listeners.add(listener);
+    }
+    @Override
+    public void removeListener(@NotNull Consumer<@NotNull Element> listener) {
+        listeners.remove(listener);
+    }
+
+    // Implementations
+
+    @Override
+    public @NotNull String toString() {
+        return "ObservableElement{" +
+                "itemStack=" + getItemStack() +
+                ", actions=" + getActions() +
+                '}';
+    }
+
+}
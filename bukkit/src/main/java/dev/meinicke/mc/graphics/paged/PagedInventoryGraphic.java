@@ -1,8 +1,14 @@
 package dev.meinicke.mc.graphics.paged;
 
+import dev.meinicke.mc.graphics.ActionTable;
 import dev.meinicke.mc.graphics.InventoryGraphic;
+import dev.meinicke.mc.graphics.Layout;
 import dev.meinicke.mc.graphics.utils.ItemBuilder;
+import dev.meinicke.mc.graphics.utils.ItemTemplate;
+import dev.meinicke.mc.graphics.utils.SharedItems;
+import org.bukkit.Bukkit;
 import org.bukkit.Material;
+import org.bukkit.entity.HumanEntity;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryEvent;
 import org.bukkit.inventory.ItemStack;
@@ -10,14 +16,15 @@ import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Range;
-import org.jetbrains.annotations.Unmodifiable;
+import org.jetbrains.annotations.UnmodifiableView;
 
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.LinkedList;
-import java.util.Objects;
+import java.util.*;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
+import java.util.logging.Level;
 import java.util.stream.IntStream;
 
 public class PagedInventoryGraphic extends InventoryGraphic {
@@ -25,22 +32,34 @@ public class PagedInventoryGraphic extends InventoryGraphic {
     // Object
 
     private int[] bounds = new int[0];
-    private volatile int page = 0;
+    private @NotNull CompiledBounds compiledBounds;
 
-    private final @NotNull Collection<@NotNull Element> elements = new LinkedList<>();
+    private final @NotNull ElementList elements;
+    private @NotNull ElementSource source;
+    private final @NotNull Runnable sourceListener = this::requestSync;
+    private boolean attached = false; // The source and the visible elements are listened only while it's viewed
 
-    private @NotNull Supplier<@Nullable ItemStack> previousItem = () -> ItemBuilder.skullFromUrl("https://textures.minecraft.net/texture/5f133e91919db0acefdc272d67fd87b4be88dc44a958958824474e21e06d53e6").name("§9Previous Page").lore("§7Click here to navigate to the previous page.", "§7The actual page is §f" + (getPage() + 1) + "§9/§f" + getAvailablePages() + "§7.").build();
-    private @NotNull Supplier<@Nullable ItemStack> nextItem = () -> ItemBuilder.skullFromUrl("https://textures.minecraft.net/texture/e3fc52264d8ad9e654f415bef01a23947edbccccf649373289bea4d149541f70").name("§9Next Page").lore("§7Click here to navigate to the next page.", "§7The actual page is §f" + (getPage() + 1) + "§9/§f" + getAvailablePages() + "§7.").build();
+    // The default navigation items depend on this graphic, so they aren't shared with the forks
+    private final @NotNull Supplier<@Nullable ItemStack> defaultPreviousItem = () -> Templates.PREVIOUS_ITEM.create(getPage() + 1, getAvailablePages());
+    private final @NotNull Supplier<@Nullable ItemStack> defaultNextItem = () -> Templates.NEXT_ITEM.create(getPage() + 1, getAvailablePages());
+
+    private @NotNull Supplier<@Nullable ItemStack> previousItem = defaultPreviousItem;
+    private @NotNull Supplier<@Nullable ItemStack> nextItem = defaultNextItem;
 
     private int previousItemSlot;
     private int nextItemSlot;
 
     private @Nullable BlankItem blankItem;
 
-    // Cache (for performance)
+    private @Nullable Executor loader;
+    private @NotNull Supplier<@Nullable ItemStack> loadingItem = () -> Templates.LOADING_ITEM;
+    private boolean syncPending = false; // A sync was requested during an update
+
+    private volatile @Nullable PagedAsync async; // Created once, by the first thread asking for it
 
-    private @Nullable Integer blankItemSlotCache = null;
-    private final @NotNull Collection<Action<?>> blankItemActionsCache = new LinkedList<>();
+    // The page state of the shared inventory, at per-viewer graphics every viewer has its own
+    private final @NotNull Cursor shared = new SharedCursor();
+    private @Nullable Cursor rendering; // The cursor being rendered, #getPage() returns its page
 
     // Object
 
@@ -51,49 +70,135 @@ public class PagedInventoryGraphic extends InventoryGraphic {
         super(plugin, title, size);
 
         // Variables
+        this.elements = new ElementList();
+        this.source = elements;
         this.previousItemSlot = previousItemSlot;
         this.nextItemSlot = nextItemSlot;
+        this.compiledBounds = new CompiledBounds(bounds, size);
+    }
+    protected PagedInventoryGraphic(@NotNull PagedPrototype prototype) {
+        super(prototype);
+
+        this.bounds = prototype.bounds;
+        this.compiledBounds = prototype.compiledBounds;
+        this.shared.page = prototype.page;
+
+        this.elements = prototype.elements.fork();
+        this.source = prototype.source != null ? prototype.source : elements;
+
+        if (prototype.previousItem != null) this.previousItem = prototype.previousItem;
+        if (prototype.nextItem != null) this.nextItem = prototype.nextItem;
+        this.previousItemSlot = prototype.previousItemSlot;
+        this.nextItemSlot = prototype.nextItemSlot;
+
+        this.blankItem = prototype.blankItem;
+        this.shared.blankItemSlot = prototype.blankItemSlot;
+        this.shared.blankItemActions.addAll(prototype.blankItemActions);
+
+        this.loader = prototype.loader;
+        this.loadingItem = prototype.loadingItem;
+
+        // The navigation actions are bound to the graphic they navigate
+        @NotNull ActionTable actions = getActionTable();
+
+        if (previousItemSlot >= 0 && previousItemSlot < getSize() && actions.removeIf(previousItemSlot, action -> action instanceof PreviousPageAction)) {
+            actions.add(previousItemSlot, new PreviousPageAction());
+        }
+        if (nextItemSlot >= 0 && nextItemSlot < getSize() && actions.removeIf(nextItemSlot, action -> action instanceof NextPageAction)) {
+            actions.add(nextItemSlot, new NextPageAction());
+        }
+
+        // The visible elements are listened, and the page loaded if it wasn't yet, at the first open
+        shared.visible.putAll(prototype.visible);
     }
 
     // Getters
 
-    public @NotNull Collection<@NotNull Element> getElements() {
+    public @NotNull ElementList getElements() {
+        if (ElementView.getBacking(source) != elements) {
+            throw new IllegalStateException("the elements are provided by a custom element source");
+        }
+
         return elements;
     }
-    @Unmodifiable
-    public final @NotNull Collection<@NotNull Element> getElements(int page) {
-        int[] availableBounds = getAvailableBounds();
-        return getElements().stream().skip(((long) getPage() * availableBounds.length)).limit(availableBounds.length).collect(Collectors.toList());
+    @UnmodifiableView
+    public final @NotNull List<@NotNull Element> getElements(int page) {
+        int bounds = compiledBounds.available.length;
+
+        // Computed as a long, a page out of range is clamped instead of overflowing to another page
+        int offset = (int) Math.max(0, Math.min(Integer.MAX_VALUE, (long) page * bounds));
+        return Collections.unmodifiableList(getElementSource().fetch(offset, bounds));
+    }
+
+    public final @NotNull ElementSource getElementSource() {
+        return source;
+    }
+    public void setElementSource(@Nullable ElementSource source) {
+        if (source == null) {
+            source = elements;
+        } else if (source == this.source) {
+            return;
+        }
+
+        if (attached) this.source.removeListener(sourceListener);
+        this.source = source;
+        if (attached) this.source.addListener(sourceListener);
+
+        sync();
     }
 
     public int getAvailablePages() {
-        int bounds = getAvailableBounds().length;
+        int bounds = compiledBounds.available.length;
         if (bounds == 0) return 1;
 
-        return Math.max(1, (int) Math.ceil((double) getElements().size() / bounds));
+        return Math.max(1, (getElementSource().size() + bounds - 1) / bounds);
     }
 
     public int getPage() {
-        return page;
+        @Nullable Cursor rendering = this.rendering;
+        return (rendering != null ? rendering : shared).page;
     }
     public void setPage(int page) {
-        if (this.page == page) {
+        if (shared.page == page) {
             return;
         }
 
-        this.page = page;
-        sync();
+        shared.page = page;
+
+        if (!isPerViewer()) {
+            sync();
+        }
     }
 
-    private int @NotNull [] getAvailableBounds(int size) {
-        return IntStream.of(getBounds()).filter(i -> i < size).toArray();
+    public int getPage(@NotNull HumanEntity human) {
+        @Nullable View view = getView(human);
+        return view != null ? ((PagedView) view).cursor.page : shared.page;
     }
-    /**
-     * The bounds that is available for this inventory size
-     * @return
-     */
+    public void setPage(@NotNull HumanEntity human, int page) {
+        @Nullable View view = getView(human);
+
+        if (view == null) {
+            setPage(page);
+            return;
+        }
+
+        @NotNull Cursor cursor = ((PagedView) view).cursor;
+
+        if (cursor.page == page) {
+            return;
+        }
+
+        cursor.page = page;
+
+        if (isUpdating()) {
+            syncPending = true;
+        } else {
+            sync(cursor);
+        }
+    }
+
     public int @NotNull [] getAvailableBounds() {
-        return getAvailableBounds(getSize());
+        return compiledBounds.available.clone();
     }
     @Range(from = 0, to = 53)
     public final int @NotNull [] getBounds() {
@@ -102,11 +207,10 @@ public class PagedInventoryGraphic extends InventoryGraphic {
 
     public final void setBounds(int @NotNull ... slots) {
         this.bounds = slots;
-        sync();
+        this.compiledBounds = new CompiledBounds(slots, getSize());
 
-        if (slots.length > 0) {
-            setPage(Math.min(getPage(), getAvailablePages() - 1));
-        }
+        // The page is clamped by the sync
+        sync();
     }
     public final void setBounds(@Range(from = 1, to = 54) int bounds) {
         this.setBounds(IntStream.range(0, bounds).toArray());
@@ -120,15 +224,8 @@ public class PagedInventoryGraphic extends InventoryGraphic {
     }
 
     public int getIndex(int slot) {
-        int[] bounds = getAvailableBounds();
-
-        for (int i = 0; i < bounds.length; i++) {
-            if (bounds[i] == slot) {
-                return (getPage() * bounds.length) + i;
-            }
-        }
-
-        return -1;
+        int position = compiledBounds.getPosition(slot);
+        return position == -1 ? -1 : (getPage() * compiledBounds.available.length) + position;
     }
 
     public @NotNull Supplier<@Nullable ItemStack> getPreviousItem() {
@@ -153,7 +250,8 @@ public class PagedInventoryGraphic extends InventoryGraphic {
         if (getActions().containsKey(getPreviousItemSlot())) {
             getActions().get(getPreviousItemSlot()).removeIf(action -> action instanceof PreviousPageAction);
         }
-        getHandle().setItem(getPreviousItemSlot(), new ItemStack(Material.AIR));
+        stopAnimation(getPreviousItemSlot());
+        getBuffer().set(getPreviousItemSlot(), null);
 
         // Change slot
         this.previousItemSlot = previousItemSlot;
@@ -168,7 +266,8 @@ public class PagedInventoryGraphic extends InventoryGraphic {
         if (getActions().containsKey(getNextItemSlot())) {
             getActions().get(getNextItemSlot()).removeIf(action -> action instanceof NextPageAction);
         }
-        getHandle().setItem(getNextItemSlot(), new ItemStack(Material.AIR));
+        stopAnimation(getNextItemSlot());
+        getBuffer().set(getNextItemSlot(), null);
 
         // Change slot
         this.nextItemSlot = nextItemSlot;
@@ -192,6 +291,84 @@ public class PagedInventoryGraphic extends InventoryGraphic {
         setBlankItem(new BlankItem(slot, itemStack));
     }
 
+    @Override
+    public void apply(@NotNull Layout layout) {
+        batch(() -> {
+            // The navigation slots are moved first, so they don't clear the layout items
+            if (layout.getPreviousSlot() != -1) setPreviousItemSlot(layout.getPreviousSlot());
+            if (layout.getNextSlot() != -1) setNextItemSlot(layout.getNextSlot());
+
+            if (layout.getBlankSlot() != -1) {
+                @Nullable BlankItem blankItem = getBlankItem();
+                setBlankItem(blankItem != null ? blankItem.withSlot(layout.getBlankSlot()) : new BlankItem(layout.getBlankSlot()));
+            }
+
+            super.apply(layout);
+
+            int @NotNull [] bounds = layout.getBounds();
+            if (bounds.length > 0) setBounds(bounds);
+        });
+    }
+
+    @Override
+    public void setPerViewer(boolean perViewer) {
+        if (perViewer == isPerViewer()) {
+            return;
+        }
+
+        super.setPerViewer(perViewer);
+
+        if (perViewer) {
+            // The shared page isn't rendered anymore
+            shared.unobserve();
+        } else {
+            sync();
+        }
+    }
+
+    @Override
+    protected @NotNull View createView(@NotNull HumanEntity human) {
+        return new PagedView(human);
+    }
+
+    @Override
+    public @NotNull PagedPrototype freeze() {
+        return new PagedPrototype(this);
+    }
+    @Override
+    public @NotNull PagedInventoryGraphic recreate(@NotNull HumanEntity human) {
+        return freeze().create();
+    }
+
+    @Override
+    public @NotNull PagedAsync async() {
+        @Nullable PagedAsync async = this.async;
+
+        if (async == null) {
+            synchronized (this) {
+                if ((async = this.async) == null) {
+                    this.async = async = new PagedAsync();
+                }
+            }
+        }
+
+        return async;
+    }
+
+    public @Nullable Executor getLoader() {
+        return loader;
+    }
+    public void setLoader(@Nullable Executor loader) {
+        this.loader = loader;
+    }
+
+    public @NotNull Supplier<@Nullable ItemStack> getLoadingItem() {
+        return loadingItem;
+    }
+    public void setLoadingItem(@NotNull Supplier<@Nullable ItemStack> loadingItem) {
+        this.loadingItem = loadingItem;
+    }
+
     // Super inventory graphic methods
 
     @Override
@@ -200,8 +377,11 @@ public class PagedInventoryGraphic extends InventoryGraphic {
         super.setSize(size);
 
         if (old != getSize()) { // Changed!
+            @NotNull CompiledBounds oldBounds = compiledBounds;
+            compiledBounds = new CompiledBounds(getBounds(), getSize());
+
             // Remove all old actions
-            for (int slot : getAvailableBounds(old)) {
+            for (int slot : oldBounds.available) {
                 if (getActions().containsKey(slot)) {
                     getActions().get(slot).removeIf(action -> action instanceof ElementAction);
                 }
@@ -211,86 +391,618 @@ public class PagedInventoryGraphic extends InventoryGraphic {
         }
     }
 
+    @Override
+    public void open(@NotNull Collection<HumanEntity> humans) {
+        if (!isClosed()) {
+            attach();
+        }
+
+        super.open(humans);
+    }
+
+    @Override
+    public void close() {
+        super.close();
+
+        detach();
+        shared.unobserve();
+    }
+
+    @Override
+    protected void idle() {
+        detach();
+    }
+
+    private void attach() {
+        if (attached) {
+            return;
+        }
+
+        attached = true;
+        source.addListener(sourceListener);
+
+        for (@NotNull Cursor cursor : getCursors()) {
+            for (@NotNull Element element : cursor.visible.keySet()) {
+                element.addListener(cursor.listener);
+            }
+        }
+
+        sync();
+    }
+    private void detach() {
+        if (!attached) {
+            return;
+        }
+
+        attached = false;
+        source.removeListener(sourceListener);
+
+        for (@NotNull Cursor cursor : getCursors()) {
+            for (@NotNull Element element : cursor.visible.keySet()) {
+                element.removeListener(cursor.listener);
+            }
+        }
+    }
+    private @NotNull List<@NotNull Cursor> getCursors() {
+        @NotNull List<Cursor> cursors = new ArrayList<>();
+        cursors.add(shared);
+
+        for (@NotNull View view : getViews()) {
+            cursors.add(((PagedView) view).cursor);
+        }
+
+        return cursors;
+    }
+
+    @Override
+    protected void flush() {
+        if (syncPending) {
+            sync(); // Commits too
+        } else {
+            super.flush();
+        }
+    }
+
     // Utilities
 
+    private void requestSync() {
+        // Sources may notify their changes from any thread
+        if (Bukkit.isPrimaryThread()) {
+            sync();
+        } else {
+            Bukkit.getScheduler().runTask(getPlugin(), this::sync);
+        }
+    }
+
     public void sync() {
-        // Verify page
-        this.page = Math.min(getAvailablePages() - 1, getPage());
+        if (isUpdating()) {
+            syncPending = true;
+            return;
+        }
 
-        // Remove old actions
-        for (int slot = 0; slot < getSize(); slot++) {
-            if (getActions().containsKey(slot)) {
-                getActions().get(slot).removeIf(a -> a instanceof PagedAction);
+        syncPending = false;
+
+        if (isPerViewer()) {
+            for (@NotNull View view : getViews()) {
+                sync(((PagedView) view).cursor);
             }
+        } else {
+            sync(shared);
         }
 
-        // Redefine page items
-        @Nullable ItemStack previous = getPreviousItem().get();
-        if (previous != null && getPreviousItemSlot() <= getSize()) {
-            setItem(previous, new PreviousPageAction(), getPreviousItemSlot());
+        // The shared items changed during an update
+        commit();
+    }
+
+    private void sync(@NotNull Cursor cursor) {
+        // Verify page
+        cursor.page = Math.min(getAvailablePages() - 1, cursor.page);
+
+        // Variables
+        int[] availableBounds = compiledBounds.available;
+        int offset = cursor.page * availableBounds.length;
+        int generation = ++cursor.generation;
+
+        @NotNull ElementSource source = getElementSource();
+        @Nullable Executor loader = getLoader();
+
+        // The page shown (or being loaded) is kept while it's loaded again, instead of the loading item
+        boolean keep = loader != null && cursor.loadedSource == source && cursor.loadedBounds == compiledBounds && cursor.loadedOffset == offset;
+
+        // Remove old actions
+        cursor.getActionTable().removeIf(a -> a instanceof PreviousPageAction || a instanceof NextPageAction);
+        cursor.begin();
+
+        if (!keep) {
+            clear(cursor);
         }
 
-        @Nullable ItemStack next = getNextItem().get();
-        if (next != null && getNextItemSlot() <= getSize()) {
-            setItem(next, new NextPageAction(), getNextItemSlot());
+        // The suppliers see the page of the cursor
+        @Nullable Cursor rendering = this.rendering;
+        this.rendering = cursor;
+
+        try {
+            // Redefine page items
+            @Nullable ItemStack previous = getPreviousItem().get();
+            if (previous != null && getPreviousItemSlot() < getSize()) {
+                cursor.set(getPreviousItemSlot(), previous);
+                cursor.getActions(getPreviousItemSlot()).add(new PreviousPageAction());
+            }
+
+            @Nullable ItemStack next = getNextItem().get();
+            if (next != null && getNextItemSlot() < getSize()) {
+                cursor.set(getNextItemSlot(), next);
+                cursor.getActions(getNextItemSlot()).add(new NextPageAction());
+            }
+
+            if (loader == null) {
+                cursor.loadedSource = null;
+
+                // Only the elements of the visible page are fetched
+                render(cursor, source.fetch(offset, availableBounds.length), null);
+                cursor.end();
+                cursor.commit();
+
+                return;
+            }
+
+            if (keep) {
+                for (int slot : availableBounds) {
+                    cursor.retain(slot);
+                }
+                if (cursor.blankItemSlot != null) {
+                    cursor.retain(cursor.blankItemSlot);
+                }
+            } else {
+                // Show the loading item until the page is loaded
+                @Nullable ItemStack loading = getLoadingItem().get();
+
+                for (int slot : availableBounds) {
+                    cursor.set(slot, loading);
+                    cursor.getActions(slot).add(LoadingAction.INSTANCE);
+                }
+            }
+        } finally {
+            this.rendering = rendering;
         }
 
-        // Variables
-        @NotNull Element[] elements = getElements(getPage()).toArray(new Element[0]);
-        int[] availableBounds = getAvailableBounds();
+        cursor.loading = true;
+        cursor.loadedSource = source;
+        cursor.loadedBounds = compiledBounds;
+        cursor.loadedOffset = offset;
 
-        // Check if there's elements (add blank item if not)
-        @NotNull Runnable deleteOldBlankItem = () -> {
-            setItem(new ItemStack(Material.AIR), blankItemSlotCache);
-            getActions(blankItemSlotCache).removeAll(blankItemActionsCache);
+        cursor.end();
+        cursor.commit();
 
-            blankItemSlotCache = null;
-            blankItemActionsCache.clear();
-        };
+        // Sources that aren't thread-safe are read here, only the items are built at the loader
+        @Nullable List<@NotNull Element> fetched = source.isThreadSafe() ? null : new ArrayList<>(source.fetch(offset, availableBounds.length));
 
-        if (elements.length == 0) {
-            @Nullable BlankItem item = getBlankItem();
+        // Load the page asynchronously, and apply it at the next tick
+        CompletableFuture.supplyAsync(() -> {
+            @NotNull List<@NotNull Element> elements = fetched != null ? fetched : new ArrayList<>(source.fetch(offset, availableBounds.length));
+            @Nullable ItemStack[] items = new ItemStack[elements.size()];
 
-            if (blankItemSlotCache != null && (item == null || !Objects.equals(item.getSlot(), blankItemSlotCache))) {
-                deleteOldBlankItem.run();
+            for (int row = 0; row < items.length; row++) {
+                items[row] = elements.get(row).getItemStack();
             }
 
-            if (item != null && blankItemSlotCache == null) {
-                // Clear element bounds
-                setItem(new ItemStack(Material.AIR), availableBounds);
+            return new SimpleImmutableEntry<>(elements, items);
+        }, loader).whenComplete((page, throwable) -> Bukkit.getScheduler().runTask(getPlugin(), () -> {
+            // Discard outdated pages
+            if (generation != cursor.generation || isClosed() || cursor.isReleased()) {
+                return;
+            }
 
-                // Add blank item
-                blankItemSlotCache = item.getSlot();
-                blankItemActionsCache.addAll(item.getActions());
+            clear(cursor);
+            cursor.loading = false;
 
-                setItem(item.getItemStack(), blankItemSlotCache);
-                getActions(blankItemSlotCache).addAll(blankItemActionsCache);
+            if (throwable != null) {
+                getPlugin().getLogger().log(Level.SEVERE, "cannot load page " + (cursor.page + 1) + " of paged inventory graphic", throwable);
+                render(cursor, Collections.emptyList(), null);
+            } else {
+                render(cursor, page.getKey(), page.getValue());
             }
 
+            cursor.commit();
+        }));
+    }
+
+    private void clear(@NotNull Cursor cursor) {
+        cursor.getActionTable().removeIf(a -> a instanceof ElementAction || a instanceof LoadingAction);
+        cursor.unobserve();
+        cursor.loading = false;
+
+        if (cursor.blankItemSlot != null) {
+            cursor.getActions(cursor.blankItemSlot).removeAll(cursor.blankItemActions);
+            cursor.set(cursor.blankItemSlot, null);
+
+            cursor.blankItemSlot = null;
+            cursor.blankItemActions.clear();
+        }
+    }
+
+    private void refresh(@NotNull Cursor cursor, @NotNull Element element) {
+        // Elements may notify their changes from any thread
+        if (!Bukkit.isPrimaryThread()) {
+            Bukkit.getScheduler().runTask(getPlugin(), () -> refresh(cursor, element));
             return;
-        } else if (blankItemSlotCache != null) {
-            deleteOldBlankItem.run();
         }
 
-        // Fill items, there's elements available.
+        @Nullable Long slots = cursor.visible.get(element);
+        if (slots == null || cursor.isReleased()) return;
+
+        @NotNull ItemStack item = element.getItemStack();
+
+        for (long remaining = slots; remaining != 0L; remaining &= remaining - 1) {
+            cursor.set(Long.numberOfTrailingZeros(remaining), item);
+        }
+
+        cursor.commit();
+    }
+
+    private void render(@NotNull Cursor cursor, @NotNull List<@NotNull Element> elements, @Nullable ItemStack @Nullable [] items) {
+        // Variables
+        int[] availableBounds = compiledBounds.available;
+        int length = Math.min(availableBounds.length, elements.size());
+
+        // Fill items, the bounds without an element are cleared
         for (int row = 0; row < availableBounds.length; row++) {
             // Index and slot
             int slot = availableBounds[row];
 
             // Retrieve element
-            @Nullable Element element = row < elements.length ? elements[row] : null;
+            @Nullable Element element = row < length ? elements.get(row) : null;
 
-            // Add item to the inventory
+            // Add item to the cursor
             if (element == null) { // Empty bound
-                setItem(new ItemStack(Material.AIR), slot);
+                cursor.set(slot, null);
             } else { // Valid bound with an element
-                setItem(element.getItemStack(), new ElementAction(element), slot);
+                cursor.set(slot, items != null ? items[row] : element.getItemStack());
+                cursor.getActions(slot).add(new ElementAction(element));
+
+                cursor.observe(element, slot);
             }
         }
+
+        // Add the blank item if there's no elements
+        @Nullable BlankItem item = getBlankItem();
+
+        if (length == 0 && item != null) {
+            cursor.blankItemSlot = item.getSlot();
+            cursor.blankItemActions.addAll(item.getActions());
+
+            cursor.set(cursor.blankItemSlot, item.getItemStack());
+            cursor.getActions(cursor.blankItemSlot).addAll(cursor.blankItemActions);
+        }
     }
 
     // Classes
 
+    /**
+     * The default navigation and loading items, compiled once when first used.
+     */
+    private static final class Templates {
+
+        private static final @NotNull ItemTemplate PREVIOUS_ITEM = ItemTemplate.compile(ItemBuilder.skullFromUrl("https://textures.minecraft.net/texture/5f133e91919db0acefdc272d67fd87b4be88dc44a958958824474e21e06d53e6").name("§9Previous Page").lore("§7Click here to navigate to the previous page.", "§7The actual page is §f{page}§9/§f{pages}§7."));
+        private static final @NotNull ItemTemplate NEXT_ITEM = ItemTemplate.compile(ItemBuilder.skullFromUrl("https://textures.minecraft.net/texture/e3fc52264d8ad9e654f415bef01a23947edbccccf649373289bea4d149541f70").name("§9Next Page").lore("§7Click here to navigate to the next page.", "§7The actual page is §f{page}§9/§f{pages}§7."));
+
+        private static final @NotNull ItemStack LOADING_ITEM = SharedItems.intern(new ItemBuilder(Material.PAPER).name("§7Loading...").lore("§8Please wait while the page is loaded."));
+
+    }
+
+    /**
+     * The bounds compiled for a specific inventory size: the bounds that fit into it and a slot to position table,
+     * compiled once every time the bounds or the size change.
+     */
+    private static final class CompiledBounds {
+
+        private final int @NotNull [] available;
+        private final byte @NotNull [] positions = new byte[54];
+
+        private CompiledBounds(int @NotNull [] bounds, int size) {
+            int @NotNull [] available = new int[bounds.length];
+            int length = 0;
+
+            Arrays.fill(positions, (byte) -1);
+
+            for (int slot : bounds) {
+                if (slot >= 0 && slot < size && positions[slot] == -1) {
+                    positions[slot] = (byte) length;
+                    available[length++] = slot;
+                }
+            }
+
+            this.available = Arrays.copyOf(available, length);
+        }
+
+        // Getters
+
+        public int getPosition(int slot) {
+            return slot >= 0 && slot < positions.length ? positions[slot] : -1;
+        }
+
+    }
+
+    /**
+     * The page state of an inventory, and where its page is rendered: the shared inventory or the view of a viewer.
+     */
+    private abstract class Cursor {
+
+        volatile int page = 0;
+        int generation = 0; // Incremented every sync, so outdated page loads are discarded
+        boolean loading = false; // A page is being loaded by the loader
+
+        // The elements at the visible page and their slots (one bit per slot), observed while they're visible
+        final @NotNull Map<@NotNull Element, @NotNull Long> visible = new IdentityHashMap<>();
+        final @NotNull Consumer<@NotNull Element> listener = element -> refresh(this, element);
+
+        @Nullable Integer blankItemSlot = null;
+        final @NotNull Collection<Action<?>> blankItemActions = new LinkedList<>();
+
+        // What the last page load was started for, a sync of the same page keeps it instead of the loading item
+        @Nullable ElementSource loadedSource;
+        @Nullable CompiledBounds loadedBounds;
+        int loadedOffset = -1;
+
+        // Getters
+
+        abstract @NotNull ActionTable getActionTable();
+        abstract @NotNull Collection<@NotNull Action<?>> getActions(int slot);
+
+        boolean isReleased() {
+            return false;
+        }
+
+        // Modules
+
+        abstract void set(int slot, @Nullable ItemStack item);
+        abstract void commit();
+
+        void begin() {
+        }
+        void end() {
+        }
+        void retain(int slot) {
+        }
+
+        void observe(@NotNull Element element, int slot) {
+            @Nullable Long slots = visible.get(element);
+
+            if (slots == null) {
+                if (attached) element.addListener(listener);
+                slots = 0L;
+            }
+
+            visible.put(element, slots | (1L << slot));
+        }
+        void unobserve() {
+            // The listeners of a detached graphic were already removed
+            if (attached) {
+                for (@NotNull Element element : visible.keySet()) {
+                    element.removeListener(listener);
+                }
+            }
+
+            visible.clear();
+        }
+
+    }
+    private final class SharedCursor extends Cursor {
+
+        // Getters
+
+        @Override
+        @NotNull ActionTable getActionTable() {
+            return PagedInventoryGraphic.this.getActionTable();
+        }
+        @Override
+        @NotNull Collection<@NotNull Action<?>> getActions(int slot) {
+            return PagedInventoryGraphic.this.getActions(slot);
+        }
+
+        // Modules
+
+        @Override
+        void set(int slot, @Nullable ItemStack item) {
+            // The rendered slots replace their animations, like the items set to the graphic
+            stopAnimation(slot);
+            getBuffer().set(slot, item);
+        }
+        @Override
+        void commit() {
+            PagedInventoryGraphic.this.commit();
+        }
+
+    }
+
+    /**
+     * The view of a viewer at per-viewer graphics, the paged slots are overlaid with the page of the viewer.
+     */
+    private final class PagedView extends View {
+
+        private final @NotNull ViewCursor cursor = new ViewCursor();
+        private boolean released = false;
+
+        private PagedView(@NotNull HumanEntity human) {
+            super(human);
+
+            // The viewers start at the shared page
+            cursor.page = shared.page;
+            sync(cursor);
+        }
+
+        // Modules
+
+        @Override
+        protected void release() {
+            released = true;
+            cursor.unobserve();
+        }
+
+        // Classes
+
+        private final class ViewCursor extends Cursor {
+
+            // The slots overlaid by the current and the previous render
+            private long rendered = 0L;
+            private long stale = 0L;
+
+            // Getters
+
+            @Override
+            @NotNull ActionTable getActionTable() {
+                return PagedView.this.getActionTable();
+            }
+            @Override
+            @NotNull Collection<@NotNull Action<?>> getActions(int slot) {
+                return PagedView.this.getActions(slot);
+            }
+
+            @Override
+            boolean isReleased() {
+                return released;
+            }
+
+            // Modules
+
+            @Override
+            void set(int slot, @Nullable ItemStack item) {
+                rendered |= 1L << slot;
+                setItem(slot, item);
+            }
+            @Override
+            void commit() {
+                // The view pushes its items at once
+            }
+
+            @Override
+            void begin() {
+                stale = rendered;
+                rendered = 0L;
+            }
+            @Override
+            void retain(int slot) {
+                rendered |= 1L << slot;
+            }
+            @Override
+            void end() {
+                // The slots that aren't paged anymore show the shared items again
+                for (long remaining = stale & ~rendered; remaining != 0L; remaining &= remaining - 1) {
+                    reset(Long.numberOfTrailingZeros(remaining));
+                }
+
+                stale = 0L;
+            }
+
+        }
+
+    }
+
+    /**
+     * The prototype of a paged graphic, see {@link #freeze()}.
+     */
+    public static class PagedPrototype extends Prototype {
+
+        // Object
+
+        private final int @NotNull [] bounds;
+        private final @NotNull CompiledBounds compiledBounds;
+        private final int page;
+
+        private final @NotNull ElementList elements;
+        private final @Nullable ElementSource source; // Null is the default element list
+
+        private final @Nullable Supplier<@Nullable ItemStack> previousItem; // Null is the default one
+        private final @Nullable Supplier<@Nullable ItemStack> nextItem;
+        private final int previousItemSlot;
+        private final int nextItemSlot;
+
+        private final @Nullable BlankItem blankItem;
+        private final @Nullable Integer blankItemSlot;
+        private final @NotNull Collection<Action<?>> blankItemActions;
+
+        private final @Nullable Executor loader;
+        private final @NotNull Supplier<@Nullable ItemStack> loadingItem;
+
+        private final @NotNull Map<@NotNull Element, @NotNull Long> visible;
+
+        protected PagedPrototype(@NotNull PagedInventoryGraphic graphic) {
+            super(graphic);
+
+            this.bounds = graphic.bounds;
+            this.compiledBounds = graphic.compiledBounds;
+            this.page = graphic.shared.page;
+
+            this.elements = graphic.elements.fork();
+            this.source = graphic.source != graphic.elements ? graphic.source : null;
+
+            this.previousItem = graphic.previousItem != graphic.defaultPreviousItem ? graphic.previousItem : null;
+            this.nextItem = graphic.nextItem != graphic.defaultNextItem ? graphic.nextItem : null;
+            this.previousItemSlot = graphic.previousItemSlot;
+            this.nextItemSlot = graphic.nextItemSlot;
+
+            this.blankItem = graphic.blankItem;
+            this.blankItemSlot = graphic.shared.blankItemSlot;
+            this.blankItemActions = new ArrayList<>(graphic.shared.blankItemActions);
+
+            this.loader = graphic.loader;
+            this.loadingItem = graphic.loadingItem;
+
+            this.visible = new IdentityHashMap<>(graphic.shared.visible);
+        }
+
+        // Modules
+
+        @Override
+        public @NotNull PagedInventoryGraphic create() {
+            return new PagedInventoryGraphic(this);
+        }
+
+    }
+
+    /**
+     * The thread-safe mutation surface of a paged graphic, it also changes the page and the default element list.
+     */
+    public class PagedAsync extends Async {
+
+        protected PagedAsync() {
+        }
+
+        // Modules
+
+        public @NotNull CompletableFuture<Void> setPage(int page) {
+            return submit(() -> PagedInventoryGraphic.this.setPage(page));
+        }
+        public @NotNull CompletableFuture<Void> setPage(@NotNull HumanEntity human, int page) {
+            return submit(() -> PagedInventoryGraphic.this.setPage(human, page));
+        }
+        public @NotNull CompletableFuture<Void> sync() {
+            return submit(PagedInventoryGraphic.this::sync);
+        }
+
+        public @NotNull CompletableFuture<Void> addElement(@NotNull Element element) {
+            return submit(() -> getElements().add(element));
+        }
+        public @NotNull CompletableFuture<Void> addElements(@NotNull Collection<? extends @NotNull Element> elements) {
+            @NotNull List<@NotNull Element> copy = new ArrayList<>(elements);
+            return submit(() -> getElements().addAll(copy));
+        }
+        public @NotNull CompletableFuture<Void> removeElement(@NotNull Element element) {
+            return submit(() -> getElements().remove(element));
+        }
+        public @NotNull CompletableFuture<Void> setElements(@NotNull Collection<? extends @NotNull Element> elements) {
+            @NotNull List<@NotNull Element> copy = new ArrayList<>(elements);
+
+            return submit(() -> {
+                @NotNull ElementList list = getElements();
+
+                list.clear();
+                list.addAll(copy);
+            });
+        }
+
+    }
+
     public interface Element {
 
         // Static initializers
@@ -319,12 +1031,20 @@ public class PagedInventoryGraphic extends InventoryGraphic {
         static @NotNull Element create(@NotNull ItemStack itemStack) {
             return new ElementImpl(itemStack);
         }
+        static @NotNull ObservableElement observable(@NotNull ItemStack itemStack) {
+            return new ObservableElement(itemStack);
+        }
 
         // Object
 
         @NotNull ItemStack getItemStack();
         @NotNull Collection<Action<? extends InventoryEvent>> getActions();
 
+        default void addListener(@NotNull Consumer<@NotNull Element> listener) {
+        }
+        default void removeListener(@NotNull Consumer<@NotNull Element> listener) {
+        }
+
     }
     private static final class ElementImpl implements Element {
 
@@ -377,14 +1097,26 @@ public class PagedInventoryGraphic extends InventoryGraphic {
         }
     }
 
+    private static final class LoadingAction extends PagedAction {
+
+        private static final @NotNull LoadingAction INSTANCE = new LoadingAction();
+
+        @Override
+        public void accept(@NotNull InventoryClickEvent e) {
+            e.setCancelled(true);
+        }
+
+    }
+
     public final class PreviousPageAction extends PagedAction {
         @Override
         public void accept(@NotNull InventoryClickEvent e) {
             // Cancel event
             e.setCancelled(true);
 
-            // Proceed with previous page action
-            setPage(Math.max(0, getPage() - 1));
+            // Proceed with previous page action, of the viewer at per-viewer graphics
+            @NotNull HumanEntity human = e.getWhoClicked();
+            setPage(human, Math.max(0, getPage(human) - 1));
         }
     }
     public final class NextPageAction extends PagedAction {
@@ -393,9 +1125,11 @@ public class PagedInventoryGraphic extends InventoryGraphic {
             // Cancel event
             e.setCancelled(true);
 
-            // Proceed with next page action
-            if (getPage() + 1 < getAvailablePages()) {
-                setPage(getPage() + 1);
+            // Proceed with next page action, of the viewer at per-viewer graphics
+            @NotNull HumanEntity human = e.getWhoClicked();
+
+            if (getPage(human) + 1 < getAvailablePages()) {
+                setPage(human, getPage(human) + 1);
             } else {
                 e.getWhoClicked().sendMessage("§c✘ §7There are no next pages.");
             }
@@ -429,7 +1163,7 @@ public class PagedInventoryGraphic extends InventoryGraphic {
             // Call actions
             //noinspection rawtypes
             for (@NotNull Action action : getElement().getActions()) {
-                if (action.getReference().isAssignableFrom(e.getClass())) {
+                if (ActionTable.accepts(action, e)) {
                     action.accept(e);
                 }
             }
@@ -12,7 +12,6 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.Map.Entry;
-import java.util.stream.Collectors;
 
 public final class ItemBuilder {
 
@@ -36,8 +35,9 @@ public final class ItemBuilder {
     private int amount = 1;
     private short durability = 0;
 
-    private @NotNull BaseComponent @Nullable [] name = null;
-    private @NotNull BaseComponent @Nullable [] lore = null;
+    // The name and lore are kept as legacy text, so plain strings never go through component parsing
+    private @Nullable String name = null;
+    private @Nullable List<@NotNull String> lore = null;
 
     private final @NotNull Map<Enchantment, Integer> enchantments = new LinkedHashMap<>();
 
@@ -53,8 +53,8 @@ public final class ItemBuilder {
         this.meta = itemStack.getItemMeta();
 
         if (meta != null) {
-            name = meta.getDisplayName() == null ? null : TextComponent.fromLegacyText(meta.getDisplayName());
-            lore = meta.getLore() == null ? null : meta.getLore().stream().map(TextComponent::new).toArray(BaseComponent[]::new);
+            name = meta.hasDisplayName() ? meta.getDisplayName() : null;
+            lore = meta.hasLore() ? new ArrayList<>(meta.getLore()) : null;
             enchantments.putAll(meta.getEnchants());
         }
     }
@@ -74,41 +74,31 @@ public final class ItemBuilder {
 
     @Contract("_->this")
     public @NotNull ItemBuilder name(@Nullable String name) {
-        this.name = name != null ? TextComponent.fromLegacyText(name) : null;
+        this.name = name;
         return this;
     }
     @Contract("_->this")
     public @NotNull ItemBuilder name(@Nullable TextComponent name) {
-        this.name = name != null ? new BaseComponent[] { name } : null;
+        this.name = name != null ? getText(name) : null;
         return this;
     }
     @Contract("_->this")
     public @NotNull ItemBuilder name(@NotNull BaseComponent @Nullable ... name) {
-        this.name = name;
+        this.name = name != null ? getText(name) : null;
         return this;
     }
 
     @Contract("_,_->this")
     public @NotNull ItemBuilder lore(boolean append, @NotNull String lore) {
-        @NotNull BaseComponent[] result = new BaseComponent[] { new TextComponent(lore) };
-
-        if (append) appendLore(result);
-        else this.lore = result;
-
-        return this;
+        return lore(Collections.singletonList(lore), append);
     }
     @Contract("_,_->this")
     public @NotNull ItemBuilder lore(boolean append, @NotNull String @Nullable ... lore) {
-        @NotNull BaseComponent[] result = lore == null ? null : Arrays.stream(lore).map(TextComponent::new).toArray(BaseComponent[]::new);
-
-        if (append) appendLore(result);
-        else this.lore = result;
-
-        return this;
+        return lore(lore == null ? null : Arrays.asList(lore), append);
     }
     @Contract("_,_->this")
     public @NotNull ItemBuilder lore(@Nullable Collection<String> lore, boolean append) {
-        @NotNull BaseComponent[] result = lore == null ? null : lore.stream().map(TextComponent::new).toArray(BaseComponent[]::new);
+        @Nullable List<String> result = lore == null ? null : new ArrayList<>(lore);
 
         if (append) appendLore(result);
         else this.lore = result;
@@ -118,57 +108,39 @@ public final class ItemBuilder {
 
     @Contract("_,_->this")
     public @NotNull ItemBuilder lore(@Nullable BaseComponent lore, boolean append) {
-        @NotNull BaseComponent[] result = lore == null ? null : new BaseComponent[] { lore };
-
-        if (append) appendLore(result);
-        else this.lore = result;
-
-        return this;
+        return lore(lore == null ? null : Collections.singletonList(getText(lore)), append);
     }
     @Contract("_,_->this")
     public @NotNull ItemBuilder lore(boolean append, @NotNull BaseComponent lore) {
-        @NotNull BaseComponent[] result = new BaseComponent[] { lore };
-
-        if (append) appendLore(result);
-        else this.lore = result;
-
-        return this;
+        return lore(Collections.singletonList(getText(lore)), append);
     }
     @Contract("_,_->this")
     public @NotNull ItemBuilder lore(boolean append, @NotNull BaseComponent @NotNull ... lore) {
-        if (append) appendLore(lore);
-        else this.lore = lore;
+        // Every component is a lore line
+        @NotNull List<String> result = new ArrayList<>(lore.length);
 
-        return this;
+        for (@NotNull BaseComponent component : lore) {
+            result.add(getText(component));
+        }
+
+        return lore(result, append);
     }
     @Contract("_,_->this")
     public @NotNull ItemBuilder loreWithComponentCollection(@NotNull Collection<BaseComponent[]> lore, boolean append) {
-        @NotNull BaseComponent[] result = new BaseComponent[lore.stream().mapToInt(c -> c.length).sum() + (lore.size() - 1)];
+        // Every component array is a lore line
+        @NotNull List<String> result = new ArrayList<>(lore.size());
 
-        int row = 0;
         for (@NotNull BaseComponent[] components : lore) {
-            // Add components
-            for (@NotNull BaseComponent component : components) {
-                result[row] = component;
-                row++;
-            }
-
-            // Append new line
-            components[row++] = new TextComponent("\n");
+            result.add(getText(components));
         }
 
-        if (append) appendLore(result);
-        else this.lore = result;
-
-        return this;
+        return lore(result, append);
     }
-    private void appendLore(@NotNull BaseComponent[] components) {
+    private void appendLore(@Nullable List<@NotNull String> lines) {
         if (this.lore == null) {
-            this.lore = components;
-        } else {
-            int oldLength = this.lore.length;
-            this.lore = Arrays.copyOf(this.lore, oldLength + components.length);
-            System.arraycopy(components, 0, this.lore, oldLength, components.length);
+            this.lore = lines;
+        } else if (lines != null) {
+            this.lore.addAll(lines);
         }
     }
 
@@ -214,15 +186,19 @@ public final class ItemBuilder {
 
     // Builder
 
+    public @NotNull ItemSpec compile() {
+        return new ItemSpec(build(), name, lore, enchantments);
+    }
+
     public @NotNull ItemStack build() {
         @NotNull ItemStack itemStack = new ItemStack(material, amount, durability);
         @Nullable ItemMeta meta = this.meta != null ? this.meta : itemStack.getItemMeta();
 
         if (meta != null) {
             if (name != null) {
-                meta.setDisplayName(getText(name));
+                meta.setDisplayName(name);
             } if (lore != null) {
-                meta.setLore(Arrays.stream(lore).map(ItemBuilder::getText).collect(Collectors.toList()));
+                meta.setLore(new ArrayList<>(lore));
             }
 
             for (@NotNull Entry<Enchantment, Integer> entry : enchantments.entrySet()) {
@@ -0,0 +1,328 @@
+package dev.meinicke.mc.graphics.utils;
+
+import dev.meinicke.mc.graphics.paged.PagedInventoryGraphic.Element;
+import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.Map.Entry;
+
+/**
+ * A compact binary codec for item stacks and the item data of elements.
+ */
+public final class ItemCodec {
+
+    // Static initializers
+
+    // The fields present at an encoded item
+    private static final int PRESENT = 1;
+    private static final int AMOUNT = 1 << 1;
+    private static final int DURABILITY = 1 << 2;
+    private static final int NAME = 1 << 3;
+    private static final int LORE = 1 << 4;
+    private static final int ENCHANTMENTS = 1 << 5;
+    private static final int FLAGS = 1 << 6;
+    private static final int TEXTURE = 1 << 7;
+
+    public static byte @NotNull [] encode(@Nullable ItemStack item) {
+        @NotNull Encoder encoder = new Encoder();
+        encoder.writeItem(item);
+
+        @NotNull ByteBuffer buffer = encoder.finish();
+        byte @NotNull [] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+
+        return bytes;
+    }
+    public static @Nullable ItemStack decode(byte @NotNull [] bytes) {
+        return new Decoder(ByteBuffer.wrap(bytes)).readItem();
+    }
+
+    // Object
+
+    private ItemCodec() {
+        throw new UnsupportedOperationException("this class cannot be instantiated");
+    }
+
+    // Classes
+
+    /**
+     * Writes items into a buffer.
+     */
+    public static final class Encoder {
+
+        private @NotNull ByteBuffer buffer;
+        private final boolean growable;
+        private final int start;
+
+        private final @NotNull Map<@NotNull String, @NotNull Integer> strings = new HashMap<>();
+
+        public Encoder() {
+            this.buffer = ByteBuffer.allocate(256);
+            this.growable = true;
+            this.start = 0;
+        }
+        public Encoder(@NotNull ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.growable = false;
+            this.start = buffer.position();
+        }
+
+        // Getters
+
+        public int size() {
+            return buffer.position() - start;
+        }
+
+        // Modules
+
+        public void writeItem(@Nullable ItemStack item) {
+            if (item == null || item.getType() == Material.AIR) {
+                writeInt(0);
+                return;
+            }
+
+            @Nullable ItemMeta meta = item.hasItemMeta() ? item.getItemMeta() : null;
+            @Nullable String texture = meta != null ? SkullCreator.getBase64(item) : null;
+            @NotNull Map<Enchantment, Integer> enchantments = item.getEnchantments();
+
+            int fields = PRESENT;
+            if (item.getAmount() != 1) fields |= AMOUNT;
+            if (item.getDurability() != 0) fields |= DURABILITY;
+            if (meta != null && meta.hasDisplayName()) fields |= NAME;
+            if (meta != null && meta.hasLore()) fields |= LORE;
+            if (!enchantments.isEmpty()) fields |= ENCHANTMENTS;
+            if (meta != null && !meta.getItemFlags().isEmpty()) fields |= FLAGS;
+            if (texture != null) fields |= TEXTURE;
+
+            writeInt(fields);
+            writeString(item.getType().name());
+
+            if ((fields & AMOUNT) != 0) {
+                writeInt(item.getAmount());
+            } if ((fields & DURABILITY) != 0) {
+                writeInt(item.getDurability() & 0xFFFF);
+            } if ((fields & NAME) != 0) {
+                writeString(meta.getDisplayName());
+            } if ((fields & LORE) != 0) {
+                @NotNull List<String> lore = meta.getLore();
+                writeInt(lore.size());
+
+                for (@NotNull String line : lore) {
+                    writeString(line);
+                }
+            } if ((fields & ENCHANTMENTS) != 0) {
+                writeInt(enchantments.size());
+
+                for (@NotNull Entry<Enchantment, Integer> entry : enchantments.entrySet()) {
+                    writeString(entry.getKey().getName());
+                    writeInt(entry.getValue());
+                }
+            } if ((fields & FLAGS) != 0) {
+                @NotNull Set<ItemFlag> flags = meta.getItemFlags();
+                writeInt(flags.size());
+
+                for (@NotNull ItemFlag flag : flags) {
+                    writeString(flag.name());
+                }
+            } if ((fields & TEXTURE) != 0) {
+                writeString(texture);
+            }
+        }
+        public void writeElement(@NotNull Element element) {
+            writeItem(element.getItemStack());
+        }
+
+        public @NotNull ByteBuffer finish() {
+            @NotNull ByteBuffer result = buffer.duplicate();
+            result.flip();
+            result.position(start);
+
+            return result;
+        }
+
+        // Utilities
+
+        private void writeString(@NotNull String string) {
+            @Nullable Integer index = strings.get(string);
+
+            if (index != null) {
+                writeInt(index + 1);
+                return;
+            }
+
+            strings.put(string, strings.size());
+
+            // Zero announces a new string
+            byte @NotNull [] bytes = string.getBytes(StandardCharsets.UTF_8);
+
+            writeInt(0);
+            writeInt(bytes.length);
+            ensure(bytes.length);
+            buffer.put(bytes);
+        }
+        private void writeInt(int value) {
+            ensure(5);
+
+            while ((value & ~0x7F) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+
+            buffer.put((byte) value);
+        }
+        private void ensure(int bytes) {
+            if (buffer.remaining() >= bytes) {
+                return;
+            } else if (!growable) {
+                // The buffer itself throws if it really doesn't fit
+                return;
+            }
+
+            @NotNull ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+            buffer.flip();
+            grown.put(buffer);
+
+            buffer = grown;
+        }
+
+    }
+
+    /**
+     * Reads the items written by an {@link Encoder}, in the same order.
+     */
+    public static final class Decoder {
+
+        private final @NotNull ByteBuffer buffer;
+        private final @NotNull List<@NotNull String> strings = new ArrayList<>();
+
+        public Decoder(@NotNull ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        // Getters
+
+        public boolean hasRemaining() {
+            return buffer.hasRemaining();
+        }
+
+        // Modules
+
+        public @Nullable ItemStack readItem() {
+            int fields = readInt();
+
+            if ((fields & PRESENT) == 0) {
+                return null;
+            }
+
+            @NotNull String name = readString();
+            @Nullable Material material = Material.getMaterial(name);
+
+            if (material == null) {
+                throw new IllegalArgumentException("unknown material: " + name);
+            }
+
+            int amount = (fields & AMOUNT) != 0 ? readInt() : 1;
+            short durability = (fields & DURABILITY) != 0 ? (short) readInt() : 0;
+
+            @NotNull ItemStack item = new ItemStack(material, amount, durability);
+            @Nullable ItemMeta meta = item.getItemMeta();
+
+            if ((fields & NAME) != 0) {
+                @NotNull String display = readString();
+                if (meta != null) meta.setDisplayName(display);
+            } if ((fields & LORE) != 0) {
+                @NotNull List<String> lore = new ArrayList<>();
+
+                for (int line = readInt(); line > 0; line--) {
+                    lore.add(readString());
+                }
+
+                if (meta != null) meta.setLore(lore);
+            } if ((fields & ENCHANTMENTS) != 0) {
+                for (int count = readInt(); count > 0; count--) {
+                    @NotNull String key = readString();
+                    int level = readInt();
+
+                    @Nullable Enchantment enchantment = Enchantment.getByName(key);
+
+                    if (enchantment == null) {
+                        throw new IllegalArgumentException("unknown enchantment: " + key);
+                    } else if (meta != null) {
+                        meta.addEnchant(enchantment, level, true);
+                    }
+                }
+            } if ((fields & FLAGS) != 0) {
+                for (int count = readInt(); count > 0; count--) {
+                    @NotNull String flag = readString();
+
+                    try {
+                        if (meta != null) meta.addItemFlags(ItemFlag.valueOf(flag));
+                    } catch (@NotNull IllegalArgumentException ignore) {
+                        // Flag of another version
+                    }
+                }
+            }
+
+            if (meta != null) {
+                item.setItemMeta(meta);
+            }
+
+            if ((fields & TEXTURE) != 0) {
+                SkullCreator.itemWithBase64(item, readString());
+            }
+
+            return item;
+        }
+        public @NotNull Element readElement() {
+            @Nullable ItemStack item = readItem();
+
+            if (item == null) {
+                throw new IllegalArgumentException("the encoded element has no item");
+            }
+
+            return Element.create(item);
+        }
+
+        // Utilities
+
+        private @NotNull String readString() {
+            int index = readInt();
+
+            if (index > 0) {
+                return strings.get(index - 1);
+            }
+
+            byte @NotNull [] bytes = new byte[readInt()];
+            buffer.get(bytes);
+
+            @NotNull String string = new String(bytes, StandardCharsets.UTF_8);
+            strings.add(string);
+
+            return string;
+        }
+        private int readInt() {
+            int value = 0;
+
+            for (int shift = 0; shift < 35; shift += 7) {
+                byte b = buffer.get();
+                value |= (b & 0x7F) << shift;
+
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+
+            throw new IllegalArgumentException("malformed variable-length integer");
+        }
+
+    }
+
+}
@@ -0,0 +1,91 @@
+package dev.meinicke.mc.graphics.utils;
+
+import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.*;
+
+/**
+ * An immutable item specification compiled by {@link ItemBuilder#compile()}.
+ */
+public final class ItemSpec {
+
+    // Object
+
+    private final @NotNull ItemStack prototype;
+
+    private final @Nullable String name;
+    private final @Unmodifiable @Nullable List<@NotNull String> lore;
+    private final @Unmodifiable @NotNull Map<@NotNull Enchantment, @NotNull Integer> enchantments;
+
+    ItemSpec(@NotNull ItemStack prototype, @Nullable String name, @Nullable List<@NotNull String> lore, @NotNull Map<@NotNull Enchantment, @NotNull Integer> enchantments) {
+        this.prototype = prototype;
+
+        this.name = name;
+        this.lore = lore != null ? Collections.unmodifiableList(new ArrayList<>(lore)) : null;
+        this.enchantments = Collections.unmodifiableMap(new LinkedHashMap<>(enchantments));
+    }
+
+    // Getters
+
+    public @NotNull Material getMaterial() {
+        return prototype.getType();
+    }
+    public int getAmount() {
+        return prototype.getAmount();
+    }
+    public short getDurability() {
+        return prototype.getDurability();
+    }
+
+    public @Nullable String getName() {
+        return name;
+    }
+    public @Unmodifiable @Nullable List<@NotNull String> getLore() {
+        return lore;
+    }
+    public @Unmodifiable @NotNull Map<@NotNull Enchantment, @NotNull Integer> getEnchantments() {
+        return enchantments;
+    }
+
+    public @Nullable ItemMeta getItemMeta() {
+        return prototype.hasItemMeta() ? prototype.getItemMeta() : null;
+    }
+
+    // Modules
+
+    public @NotNull ItemStack create() {
+        return prototype.clone();
+    }
+
+    public @NotNull ItemBuilder toBuilder() {
+        return new ItemBuilder(create());
+    }
+
+    // Implementations
+
+    @Override
+    public boolean equals(@Nullable Object object) {
+        if (this == object) return true;
+        if (!(object instanceof ItemSpec)) return false;
+        @NotNull ItemSpec spec = (ItemSpec) object;
+        return prototype.equals(spec.prototype);
+    }
+    @Override
+    public int hashCode() {
+        return prototype.hashCode();
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "ItemSpec{" +
+                "prototype=" + prototype +
+                '}';
+    }
+
+}
@@ -0,0 +1,250 @@
+package dev.meinicke.mc.graphics.utils;
+
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.*;
+import java.util.Map.Entry;
+
+/**
+ * An item compiled once with named placeholders (like {@code {page}}) at its display name and lore.
+ */
+public final class ItemTemplate {
+
+    // Static initializers
+
+    private static final int CACHE_SIZE = 64;
+
+    public static @NotNull ItemTemplate compile(@NotNull ItemBuilder builder) {
+        return compile(builder.build());
+    }
+    public static @NotNull ItemTemplate compile(@NotNull ItemSpec spec) {
+        return new ItemTemplate(spec.create());
+    }
+    public static @NotNull ItemTemplate compile(@NotNull ItemStack itemStack) {
+        return new ItemTemplate(itemStack.clone());
+    }
+
+    // Object
+
+    private final @NotNull ItemStack base;
+    private final @NotNull List<@NotNull String> placeholders = new ArrayList<>();
+
+    private final @Nullable Text name;
+    private final @NotNull Text @Nullable [] lore;
+
+    private final @NotNull Map<@NotNull List<@NotNull String>, @NotNull ItemStack> cache = new LinkedHashMap<List<String>, ItemStack>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(@NotNull Entry<@NotNull List<@NotNull String>, @NotNull ItemStack> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private ItemTemplate(@NotNull ItemStack base) {
+        this.base = base;
+
+        @Nullable ItemMeta meta = base.getItemMeta();
+
+        if (meta != null && meta.hasDisplayName()) {
+            this.name = Text.compile(meta.getDisplayName(), placeholders);
+        } else {
+            this.name = null;
+        }
+
+        if (meta != null && meta.hasLore()) {
+            @NotNull List<String> lines = meta.getLore();
+            this.lore = new Text[lines.size()];
+
+            for (int line = 0; line < lore.length; line++) {
+                lore[line] = Text.compile(lines.get(line), placeholders);
+            }
+        } else {
+            this.lore = null;
+        }
+    }
+
+    // Getters
+
+    public @Unmodifiable @NotNull List<@NotNull String> getPlaceholders() {
+        return Collections.unmodifiableList(placeholders);
+    }
+
+    // Modules
+
+    public @NotNull ItemStack create(@Nullable Object @NotNull ... arguments) {
+        if (arguments.length != placeholders.size()) {
+            throw new IllegalArgumentException("this template expects " + placeholders.size() + " arguments " + placeholders + ", but " + arguments.length + " were given");
+        } else if (placeholders.isEmpty()) {
+            return base;
+        }
+
+        @NotNull String[] values = new String[arguments.length];
+        for (int index = 0; index < arguments.length; index++) {
+            values[index] = String.valueOf(arguments[index]);
+        }
+
+        @NotNull List<@NotNull String> key = Arrays.asList(values);
+
+        synchronized (cache) {
+            @Nullable ItemStack cached = cache.get(key);
+
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        @NotNull ItemStack itemStack = render(values);
+
+        synchronized (cache) {
+            cache.put(key, itemStack);
+        }
+
+        return itemStack;
+    }
+    public @NotNull ItemStack create(@NotNull Map<@NotNull String, ?> arguments) {
+        @NotNull Object[] values = new Object[placeholders.size()];
+
+        for (int index = 0; index < values.length; index++) {
+            @NotNull String placeholder = placeholders.get(index);
+
+            if (!arguments.containsKey(placeholder)) {
+                throw new IllegalArgumentException("missing value of placeholder '" + placeholder + "'");
+            }
+
+            values[index] = arguments.get(placeholder);
+        }
+
+        return create(values);
+    }
+
+    private @NotNull ItemStack render(@NotNull String @NotNull [] values) {
+        @NotNull ItemStack itemStack = base.clone();
+        @Nullable ItemMeta meta = itemStack.getItemMeta();
+
+        if (meta == null) {
+            return itemStack;
+        }
+
+        if (name != null && name.isDynamic()) {
+            meta.setDisplayName(name.apply(values));
+        }
+        if (lore != null) {
+            @NotNull List<String> lines = new ArrayList<>(lore.length);
+
+            for (@NotNull Text line : lore) {
+                lines.add(line.apply(values));
+            }
+
+            meta.setLore(lines);
+        }
+
+        itemStack.setItemMeta(meta);
+        return itemStack;
+    }
+
+    // Implementations
+
+    @Override
+    public @NotNull String toString() {
+        return "ItemTemplate{" +
+                "base=" + base +
+                ", placeholders=" + placeholders +
+                '}';
+    }
+
+    // Classes
+
+    /**
+     * A text split into literal segments and the placeholder indexes between them.
+     */
+    private static final class Text {
+
+        private static @NotNull Text compile(@NotNull String text, @NotNull List<@NotNull String> placeholders) {
+            @NotNull List<String> literals = new ArrayList<>();
+            @NotNull List<Integer> indexes = new ArrayList<>();
+            @NotNull StringBuilder literal = new StringBuilder();
+
+            int start = 0;
+            int open;
+
+            while ((open = text.indexOf('{', start)) != -1) {
+                int close = text.indexOf('}', open + 1);
+                if (close == -1) break;
+
+                @NotNull String placeholder = text.substring(open + 1, close);
+
+                if (!isValid(placeholder)) {
+                    // Not a placeholder, keep the brace as literal
+                    literal.append(text, start, open + 1);
+                    start = open + 1;
+
+                    continue;
+                } else if (!placeholders.contains(placeholder)) {
+                    placeholders.add(placeholder);
+                }
+
+                literal.append(text, start, open);
+                literals.add(literal.toString());
+                literal.setLength(0);
+
+                indexes.add(placeholders.indexOf(placeholder));
+                start = close + 1;
+            }
+
+            literal.append(text, start, text.length());
+            literals.add(literal.toString());
+
+            return new Text(literals.toArray(new String[0]), indexes.stream().mapToInt(Integer::intValue).toArray());
+        }
+        private static boolean isValid(@NotNull String placeholder) {
+            if (placeholder.isEmpty()) {
+                return false;
+            }
+
+            for (char c : placeholder.toCharArray()) {
+                if (!Character.isLetterOrDigit(c) && c != '_' && c != '-' && c != '.') {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        // Object
+
+        private final @NotNull String @NotNull [] literals;
+        private final int @NotNull [] indexes;
+
+        private Text(@NotNull String @NotNull [] literals, int @NotNull [] indexes) {
+            this.literals = literals;
+            this.indexes = indexes;
+        }
+
+        // Getters
+
+        public boolean isDynamic() {
+            return indexes.length > 0;
+        }
+
+        // Modules
+
+        public @NotNull String apply(@NotNull String @NotNull [] values) {
+            if (!isDynamic()) {
+                return literals[0];
+            }
+
+            @NotNull StringBuilder builder = new StringBuilder(literals[0]);
+
+            for (int i = 0; i < indexes.length; i++) {
+                builder.append(values[indexes[i]]).append(literals[i + 1]);
+            }
+
+            return builder.toString();
+        }
+
+    }
+
+}
@@ -0,0 +1,170 @@
+package dev.meinicke.mc.graphics.utils;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.serialization.DelegateDeserialization;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.material.MaterialData;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A flyweight registry of canonical item stacks. The shared instances are read-only, clone them to get a mutable copy.
+ */
+public final class SharedItems {
+
+    // Static initializers
+
+    private static final int MAX_SIZE = 4096;
+
+    private static final @NotNull ItemStack AIR = new ReadOnlyItemStack(new ItemStack(Material.AIR));
+    private static final @NotNull Map<@NotNull ItemStack, @NotNull ItemStack> registry = new ConcurrentHashMap<>();
+
+    public static @NotNull ItemStack air() {
+        return AIR;
+    }
+
+    public static @NotNull ItemStack intern(@NotNull ItemStack item) {
+        if (item instanceof ReadOnlyItemStack) {
+            return item;
+        } else if (item.getType() == Material.AIR) {
+            return AIR;
+        }
+
+        @Nullable ItemStack shared = registry.get(item);
+
+        if (shared != null) {
+            return shared;
+        } else if (registry.size() >= MAX_SIZE) {
+            // The registry is full, the copy is still read-only but not shared
+            return new ReadOnlyItemStack(item);
+        }
+
+        return registry.computeIfAbsent(new ReadOnlyItemStack(item), key -> key);
+    }
+    public static @NotNull ItemStack intern(@NotNull ItemBuilder builder) {
+        return intern(builder.build());
+    }
+    public static @NotNull ItemStack intern(@NotNull ItemSpec spec) {
+        return intern(spec.create());
+    }
+
+    public static @NotNull ItemStack filler(@NotNull Material material, short data) {
+        return intern(new ItemBuilder(material).durability(data).name(" "));
+    }
+    public static @NotNull ItemStack filler(@NotNull Material material) {
+        return filler(material, (short) 0);
+    }
+
+    public static boolean isShared(@Nullable ItemStack item) {
+        return item instanceof ReadOnlyItemStack;
+    }
+
+    public static int size() {
+        return registry.size();
+    }
+    public static void clear() {
+        registry.clear();
+    }
+
+    // Object
+
+    private SharedItems() {
+        throw new UnsupportedOperationException("this class cannot be instantiated");
+    }
+
+    // Classes
+
+    // Serialized as a plain item stack, the configurations don't know this class
+    @DelegateDeserialization(ItemStack.class)
+    private static final class ReadOnlyItemStack extends ItemStack {
+
+        // The mutators are called by the super constructor, they're only locked after it
+        private final boolean locked;
+
+        private ReadOnlyItemStack(@NotNull ItemStack item) {
+            super(item);
+            this.locked = true;
+        }
+
+        // Modules
+
+        private void check() {
+            if (locked) {
+                throw new UnsupportedOperationException("this item stack is shared and cannot be modified, clone it first");
+            }
+        }
+
+        @Override
+        public void setType(@NotNull Material type) {
+            check();
+            super.setType(type);
+        }
+        @Override
+        @Deprecated
+        public void setTypeId(int type) {
+            check();
+            super.setTypeId(type);
+        }
+        @Override
+        public void setAmount(int amount) {
+            check();
+            super.setAmount(amount);
+        }
+        @Override
+        public void setDurability(short durability) {
+            check();
+            super.setDurability(durability);
+        }
+        @Override
+        public void setData(@Nullable MaterialData data) {
+            check();
+            super.setData(data);
+        }
+        @Override
+        public boolean setItemMeta(@Nullable ItemMeta meta) {
+            check();
+            return super.setItemMeta(meta);
+        }
+
+        @Override
+        public void addEnchantment(@NotNull Enchantment enchantment, int level) {
+            check();
+            super.addEnchantment(enchantment, level);
+        }
+        @Override
+        public void addUnsafeEnchantment(@NotNull Enchantment enchantment, int level) {
+            check();
+            super.addUnsafeEnchantment(enchantment, level);
+        }
+        @Override
+        public void addEnchantments(@NotNull Map<@NotNull Enchantment, @NotNull Integer> enchantments) {
+            check();
+            super.addEnchantments(enchantments);
+        }
+        @Override
+        public void addUnsafeEnchantments(@NotNull Map<@NotNull Enchantment, @NotNull Integer> enchantments) {
+            check();
+            super.addUnsafeEnchantments(enchantments);
+        }
+        @Override
+        public int removeEnchantment(@NotNull Enchantment enchantment) {
+            check();
+            return super.removeEnchantment(enchantment);
+        }
+
+        // Implementations
+
+        @Override
+        public @NotNull ItemStack clone() {
+            // The copies are mutable
+            return new ItemStack(this);
+        }
+
+    }
+
+}
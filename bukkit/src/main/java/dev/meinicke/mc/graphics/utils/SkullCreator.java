@@ -14,15 +14,19 @@ import org.bukkit.inventory.meta.SkullMeta;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.Base64;
-import java.util.Objects;
-import java.util.UUID;
+import java.util.*;
+import java.util.Map.Entry;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * A library for the Bukkit API to create player skulls
@@ -38,22 +42,56 @@ public class SkullCreator {
         throw new UnsupportedOperationException("this class cannot be instantiated");
     }
 
-    // some reflection stuff to be used when setting a skull's profile
-    private static @Nullable Field blockProfileField;
-    private static @Nullable Method metaSetProfileMethod;
-    private static @Nullable Field metaProfileField;
+    // the prepared heads, keyed by their source (url, base64 or uuid) and cloned for every caller
+    private static int cacheSize = 256;
+    private static long cacheHits = 0;
+    private static long cacheMisses = 0;
+    private static long cacheEvictions = 0;
+
+    private static final @NotNull LinkedHashMap<@NotNull String, @NotNull ItemStack> cache = new LinkedHashMap<String, ItemStack>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(@NotNull Entry<@NotNull String, @NotNull ItemStack> eldest) {
+            if (size() > cacheSize) {
+                cacheEvictions++;
+                return true;
+            }
+
+            return false;
+        }
+    };
+
+    // the version is detected once, PLAYER_HEAD doesn't exist before 1.13
+    private static final @Nullable Material PLAYER_HEAD = Material.getMaterial("PLAYER_HEAD");
+    private static final boolean LEGACY = PLAYER_HEAD == null;
+
+    private static final @NotNull Material SKULL_ITEM = LEGACY ? Objects.requireNonNull(Material.getMaterial("SKULL_ITEM")) : PLAYER_HEAD;
+    private static final @NotNull Material SKULL_BLOCK = LEGACY ? Objects.requireNonNull(Material.getMaterial("SKULL")) : PLAYER_HEAD;
+
+    // the profile injection strategy is resolved once per skull meta/block state class
+    private static final @NotNull ClassValue<@NotNull Injector> metaInjectors = new ClassValue<Injector>() {
+        @Override
+        protected @NotNull Injector computeValue(@NotNull Class<?> type) {
+            return Injector.resolveMeta(type);
+        }
+    };
+    private static final @NotNull ClassValue<@NotNull Injector> blockInjectors = new ClassValue<Injector>() {
+        @Override
+        protected @NotNull Injector computeValue(@NotNull Class<?> type) {
+            return Injector.resolveBlock(type);
+        }
+    };
+    private static final @NotNull ClassValue<@NotNull Reader> metaReaders = new ClassValue<Reader>() {
+        @Override
+        protected @NotNull Reader computeValue(@NotNull Class<?> type) {
+            return Reader.resolve(type);
+        }
+    };
 
     /**
      * Creates a player skull, should work in both legacy and new Bukkit APIs.
      */
     private static @NotNull ItemStack createSkull() {
-        checkLegacy();
-
-        try {
-            return new ItemStack(Material.valueOf("PLAYER_HEAD"));
-        } catch (@NotNull IllegalArgumentException e) {
-            return new ItemStack(Material.valueOf("SKULL_ITEM"), 1, (byte) 3);
-        }
+        return LEGACY ? new ItemStack(SKULL_ITEM, 1, (short) 3) : new ItemStack(SKULL_ITEM);
     }
 
     /**
@@ -74,7 +112,8 @@ public class SkullCreator {
      * @return The head of the Player.
      */
     public static @NotNull ItemStack itemFromUuid(@NotNull UUID id) {
-        return Objects.requireNonNull(itemWithUuid(createSkull(), id));
+        // The player may be unknown to the server yet, an ownerless head isn't cached so it's resolved again
+        return cached("uuid:" + id, () -> Objects.requireNonNull(itemWithUuid(createSkull(), id)), item -> ((SkullMeta) item.getItemMeta()).hasOwner());
     }
 
     /**
@@ -84,7 +123,7 @@ public class SkullCreator {
      * @return The head of the Player.
      */
     public static @NotNull ItemStack itemFromUrl(@NotNull String url) {
-        return Objects.requireNonNull(itemWithUrl(createSkull(), url));
+        return cached("url:" + url, () -> Objects.requireNonNull(itemWithUrl(createSkull(), url)));
     }
 
     /**
@@ -94,7 +133,86 @@ public class SkullCreator {
      * @return The head of the Player.
      */
     public static @NotNull ItemStack itemFromBase64(@NotNull String base64) {
-        return Objects.requireNonNull(itemWithBase64(createSkull(), base64));
+        return cached("base64:" + base64, () -> Objects.requireNonNull(itemWithBase64(createSkull(), base64)));
+    }
+
+    private static @NotNull ItemStack cached(@NotNull String key, @NotNull Supplier<@NotNull ItemStack> creator) {
+        return cached(key, creator, item -> true);
+    }
+    private static @NotNull ItemStack cached(@NotNull String key, @NotNull Supplier<@NotNull ItemStack> creator, @NotNull Predicate<@NotNull ItemStack> cacheable) {
+        @Nullable ItemStack template;
+
+        synchronized (cache) {
+            template = cacheSize > 0 ? cache.get(key) : null;
+
+            if (template != null) cacheHits++;
+            else cacheMisses++;
+        }
+
+        if (template == null) {
+            // The head is prepared out of the lock, concurrent misses of the same key may prepare it twice
+            template = creator.get();
+
+            if (!cacheable.test(template)) {
+                return template;
+            }
+
+            synchronized (cache) {
+                if (cacheSize > 0) {
+                    cache.put(key, template);
+                }
+            }
+        }
+
+        return template.clone();
+    }
+
+    public static void setCacheSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("the cache size cannot be negative");
+        }
+
+        synchronized (cache) {
+            cacheSize = size;
+
+            @NotNull Iterator<@NotNull String> iterator = cache.keySet().iterator();
+            while (cache.size() > size && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+
+                cacheEvictions++;
+            }
+        }
+    }
+
+    public static int getCacheSize() {
+        synchronized (cache) {
+            return cacheSize;
+        }
+    }
+
+    public static void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public static long getCacheHits() {
+        synchronized (cache) {
+            return cacheHits;
+        }
+    }
+
+    public static long getCacheMisses() {
+        synchronized (cache) {
+            return cacheMisses;
+        }
+    }
+
+    public static long getCacheEvictions() {
+        synchronized (cache) {
+            return cacheEvictions;
+        }
     }
 
     /**
@@ -167,6 +285,22 @@ public class SkullCreator {
         return item;
     }
 
+    public static @Nullable String getBase64(@NotNull ItemStack item) {
+        if (!(item.getItemMeta() instanceof SkullMeta)) {
+            return null;
+        }
+
+        @Nullable GameProfile profile = metaReaders.get(item.getItemMeta().getClass()).read(item.getItemMeta());
+
+        if (profile != null) {
+            for (@NotNull Property property : profile.getProperties().get("textures")) {
+                return property.getValue();
+            }
+        }
+
+        return null;
+    }
+
     /**
      * Sets the block to a skull with the given name.
      *
@@ -222,13 +356,9 @@ public class SkullCreator {
     }
 
     private static void setToSkull(@NotNull Block block) {
-        checkLegacy();
-
-        try {
-            block.setType(Material.valueOf("PLAYER_HEAD"), false);
-        } catch (IllegalArgumentException e) {
-            block.setType(Material.valueOf("SKULL"), false);
+        block.setType(SKULL_BLOCK, false);
 
+        if (LEGACY) {
             @NotNull Skull state = (Skull) block.getState();
             state.setSkullType(SkullType.PLAYER);
             state.update(false, false);
@@ -261,73 +391,153 @@ public class SkullCreator {
     }
 
     private static void mutateBlockState(@NotNull Skull block, @NotNull String base64) {
-        try {
-            if (blockProfileField == null) {
-                blockProfileField = block.getClass().getDeclaredField("profile");
-                blockProfileField.setAccessible(true);
+        blockInjectors.get(block.getClass()).inject(block, makeProfile(base64));
+    }
+
+    private static void mutateItemMeta(@NotNull SkullMeta meta, @NotNull String base64) {
+        metaInjectors.get(meta.getClass()).inject(meta, makeProfile(base64));
+    }
+
+    /**
+     * Reads the profile of a skull meta, resolved once per class with method handles.
+     */
+    private static final class Reader {
+
+        // Static initializers
+
+        private static final @NotNull MethodType TYPE = MethodType.methodType(Object.class, Object.class);
+
+        private static @NotNull Reader resolve(@NotNull Class<?> type) {
+            @NotNull Lookup lookup = MethodHandles.lookup();
+
+            try {
+                @NotNull Field field = type.getDeclaredField("profile");
+                field.setAccessible(true);
+
+                @Nullable MethodHandle unwrap = null;
+
+                if (field.getType().getName().equals("net.minecraft.world.item.component.ResolvableProfile")) {
+                    @NotNull Method method = field.getType().getDeclaredMethod("gameProfile");
+                    method.setAccessible(true);
+
+                    // The game profile is unwrapped after reading the field
+                    unwrap = lookup.unreflect(method).asType(TYPE);
+                }
+
+                return new Reader(lookup.unreflectGetter(field).asType(TYPE), unwrap);
+            } catch (@NotNull NoSuchFieldException | @NotNull NoSuchMethodException | @NotNull IllegalAccessException | @NotNull RuntimeException e) {
+                return new Reader(null, null);
             }
+        }
+
+        // Object
 
-            blockProfileField.set(block, makeProfile(base64));
-        } catch (@NotNull NoSuchFieldException | @NotNull IllegalAccessException e) {
-            throw new RuntimeException("cannot find profile field at skull block class", e);
+        private final @Nullable MethodHandle getter;
+        private final @Nullable MethodHandle unwrap;
+
+        private Reader(@Nullable MethodHandle getter, @Nullable MethodHandle unwrap) {
+            this.getter = getter;
+            this.unwrap = unwrap;
         }
-    }
 
-    private static void mutateItemMeta(@NotNull SkullMeta meta, @NotNull String base64) {
-        try {
-            if (metaSetProfileMethod == null) {
-                metaSetProfileMethod = meta.getClass().getDeclaredMethod("setProfile", GameProfile.class);
-                metaSetProfileMethod.setAccessible(true);
+        // Modules
+
+        public @Nullable GameProfile read(@NotNull Object target) {
+            if (getter == null) {
+                return null;
             }
 
-            metaSetProfileMethod.invoke(meta, makeProfile(base64));
-        } catch (@NotNull NoSuchMethodException | @NotNull IllegalAccessException | @NotNull InvocationTargetException ex) {
-            // if in an older API where there is no setProfile method,
-            // we set the profile field directly.
             try {
-                if (metaProfileField == null) {
-                    metaProfileField = meta.getClass().getDeclaredField("profile");
-                    metaProfileField.setAccessible(true);
-                }
+                @Nullable Object profile = (Object) getter.invokeExact(target);
 
-                @NotNull Object object = makeProfile(base64);
-
-                if (metaProfileField.getType().getName().equals("net.minecraft.world.item.component.ResolvableProfile")) {
-                    try {
-                        // Variables
-                        @NotNull GameProfile profile = (GameProfile) object;
-                        @NotNull Constructor<?> constructor = metaProfileField.getType().getDeclaredConstructor(GameProfile.class);
-                        constructor.setAccessible(true);
-
-                        object = constructor.newInstance(profile);
-
-                        // Change profile field
-                        metaProfileField.set(meta, object);
-                    } catch (@NotNull InvocationTargetException e) {
-                        throw new RuntimeException("cannot invoke " + metaProfileField.getType().getName() + " constructor", e);
-                    } catch (@NotNull NoSuchMethodException e) {
-                        throw new RuntimeException("cannot find " + metaProfileField.getType().getName() + " constructor", e);
-                    } catch (@NotNull InstantiationException e) {
-                        throw new RuntimeException("cannot generate " + metaProfileField.getType().getName() + " instance", e);
-                    }
-                } else {
-                    metaProfileField.set(meta, object);
+                if (profile != null && unwrap != null) {
+                    profile = (Object) unwrap.invokeExact(profile);
                 }
-            } catch (@NotNull NoSuchFieldException | @NotNull IllegalAccessException ex2) {
-                throw new RuntimeException("cannot find profile field at skull meta class", ex2);
+
+                return (GameProfile) profile;
+            } catch (@NotNull Throwable throwable) {
+                throw new RuntimeException("cannot read profile of " + target.getClass().getName(), throwable);
             }
         }
+
     }
 
-    // suppress warning since PLAYER_HEAD doesn't exist in 1.12.2,
-    // but we expect this and catch the error at runtime.
-    @SuppressWarnings("JavaReflectionMemberAccess")
-    private static void checkLegacy() {
-        try {
-            // if both of these succeed, then we are running
-            // in a legacy api, but on a modern (1.13+) server.
-            Material.class.getDeclaredField("PLAYER_HEAD");
-            Material.valueOf("SKULL");
-        } catch (@NotNull NoSuchFieldException | @NotNull IllegalArgumentException ignored) {}
+    /**
+     * Sets a profile into a skull meta or block state, resolved once per class with method handles.
+     */
+    private static final class Injector {
+
+        // Static initializers
+
+        private static final @NotNull MethodType TYPE = MethodType.methodType(void.class, Object.class, GameProfile.class);
+
+        private static @NotNull Injector resolveMeta(@NotNull Class<?> type) {
+            @NotNull Lookup lookup = MethodHandles.lookup();
+
+            try {
+                @NotNull Method method = type.getDeclaredMethod("setProfile", GameProfile.class);
+                method.setAccessible(true);
+
+                return new Injector(lookup.unreflect(method).asType(TYPE), null);
+            } catch (@NotNull NoSuchMethodException | @NotNull IllegalAccessException | @NotNull RuntimeException ignore) {
+                // if in an older API where there is no setProfile method,
+                // we set the profile field directly.
+            }
+
+            try {
+                @NotNull Field field = type.getDeclaredField("profile");
+                field.setAccessible(true);
+
+                @NotNull MethodHandle setter = lookup.unreflectSetter(field);
+
+                if (field.getType().getName().equals("net.minecraft.world.item.component.ResolvableProfile")) {
+                    @NotNull Constructor<?> constructor = field.getType().getDeclaredConstructor(GameProfile.class);
+                    constructor.setAccessible(true);
+
+                    // The game profile is wrapped before setting the field
+                    setter = MethodHandles.filterArguments(setter, 1, lookup.unreflectConstructor(constructor));
+                }
+
+                return new Injector(setter.asType(TYPE), null);
+            } catch (@NotNull NoSuchFieldException | @NotNull NoSuchMethodException | @NotNull IllegalAccessException | @NotNull RuntimeException e) {
+                return new Injector(null, new RuntimeException("cannot find profile field at skull meta class " + type.getName(), e));
+            }
+        }
+        private static @NotNull Injector resolveBlock(@NotNull Class<?> type) {
+            try {
+                @NotNull Field field = type.getDeclaredField("profile");
+                field.setAccessible(true);
+
+                return new Injector(MethodHandles.lookup().unreflectSetter(field).asType(TYPE), null);
+            } catch (@NotNull NoSuchFieldException | @NotNull IllegalAccessException | @NotNull RuntimeException e) {
+                return new Injector(null, new RuntimeException("cannot find profile field at skull block class " + type.getName(), e));
+            }
+        }
+
+        // Object
+
+        private final @Nullable MethodHandle handle;
+        private final @Nullable RuntimeException failure;
+
+        private Injector(@Nullable MethodHandle handle, @Nullable RuntimeException failure) {
+            this.handle = handle;
+            this.failure = failure;
+        }
+
+        // Modules
+
+        public void inject(@NotNull Object target, @NotNull GameProfile profile) {
+            if (handle == null) {
+                throw new RuntimeException(Objects.requireNonNull(failure).getMessage(), failure.getCause());
+            }
+
+            try {
+                handle.invokeExact(target, profile);
+            } catch (@NotNull Throwable throwable) {
+                throw new RuntimeException("cannot set profile of " + target.getClass().getName(), throwable);
+            }
+        }
+
     }
-}
\ No newline at end of file
+
+}
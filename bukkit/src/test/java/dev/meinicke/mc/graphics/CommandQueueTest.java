@@ -0,0 +1,129 @@
+package dev.meinicke.mc.graphics;
+
+import org.bukkit.plugin.IllegalPluginAccessException;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class CommandQueueTest {
+
+    @BeforeAll
+    static void server() {
+        TestServer.install();
+    }
+
+    private final @NotNull AtomicBoolean enabled = new AtomicBoolean(true);
+    private final @NotNull CommandQueue queue = new CommandQueue(TestServer.plugin(enabled::get));
+
+    @BeforeEach
+    void tasks() {
+        // Runs the drains left by the other tests
+        TestServer.tick();
+    }
+
+    private static void async(@NotNull Runnable runnable) throws InterruptedException {
+        @NotNull AtomicReference<Throwable> failure = new AtomicReference<>();
+        @NotNull Thread thread = new Thread(() -> {
+            try {
+                runnable.run();
+            } catch (@NotNull Throwable throwable) {
+                failure.set(throwable);
+            }
+        });
+
+        thread.start();
+        thread.join();
+
+        if (failure.get() != null) {
+            throw new AssertionError("the asynchronous code failed", failure.get());
+        }
+    }
+
+    @Test
+    void drainedInOrder() throws InterruptedException {
+        @NotNull List<@NotNull Integer> executed = Collections.synchronizedList(new ArrayList<>());
+
+        async(() -> {
+            for (int index = 0; index < 100; index++) {
+                int command = index;
+                queue.submit(() -> executed.add(command));
+            }
+        });
+
+        // Nothing runs until the main thread drains, and a single drain is scheduled
+        assertTrue(executed.isEmpty());
+        assertFalse(queue.isEmpty());
+        assertEquals(1, TestServer.getPendingTasks());
+
+        TestServer.tick();
+
+        assertEquals(100, executed.size());
+        for (int index = 0; index < executed.size(); index++) {
+            assertEquals(index, (int) executed.get(index));
+        }
+
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void mainThreadAfterQueued() throws InterruptedException {
+        @NotNull List<@NotNull String> executed = new ArrayList<>();
+
+        async(() -> queue.submit(() -> executed.add("queued")));
+
+        // The commands of the main thread run immediately, after the queued ones
+        queue.submit(() -> executed.add("main"));
+
+        assertEquals(2, executed.size());
+        assertEquals("queued", executed.get(0));
+        assertEquals("main", executed.get(1));
+    }
+
+    @Test
+    void failedCommandLogged() throws InterruptedException {
+        @NotNull List<@NotNull String> executed = new ArrayList<>();
+
+        async(() -> {
+            queue.submit(() -> {
+                throw new IllegalStateException("failure");
+            });
+            queue.submit(() -> executed.add("next"));
+        });
+
+        // A failing command doesn't stop the drain
+        TestServer.tick();
+        assertEquals(1, executed.size());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void failedScheduleRetried() throws InterruptedException {
+        @NotNull List<@NotNull String> executed = Collections.synchronizedList(new ArrayList<>());
+
+        // The drain can't be scheduled while the plugin is disabled, the command stays queued
+        enabled.set(false);
+        async(() -> assertThrows(IllegalPluginAccessException.class, () -> queue.submit(() -> executed.add("first"))));
+        assertEquals(0, TestServer.getPendingTasks());
+
+        // The next submit schedules the drain again instead of waiting for one that never runs
+        enabled.set(true);
+        async(() -> queue.submit(() -> executed.add("second")));
+        assertEquals(1, TestServer.getPendingTasks());
+
+        TestServer.tick();
+
+        assertEquals(2, executed.size());
+        assertEquals("first", executed.get(0));
+        assertEquals("second", executed.get(1));
+    }
+
+}
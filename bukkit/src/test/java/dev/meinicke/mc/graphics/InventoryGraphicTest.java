@@ -0,0 +1,225 @@
+package dev.meinicke.mc.graphics;
+
+import dev.meinicke.mc.graphics.InventoryGraphic.Prototype;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class InventoryGraphicTest {
+
+    @BeforeAll
+    static void server() {
+        TestServer.install();
+    }
+
+    private @NotNull InventoryGraphic graphic;
+
+    @BeforeEach
+    void graphic() {
+        graphic = new InventoryGraphic(TestServer.plugin(), "Test", 54);
+    }
+
+    private int writes() {
+        return TestServer.getWrites(graphic.getHandle());
+    }
+
+    // Slot buffer
+
+    @Test
+    void unchangedSlotsSkipped() {
+        graphic.setItem(new ItemStack(Material.STONE), 0);
+        assertEquals(1, writes());
+
+        // An equal stack isn't pushed again
+        graphic.setItem(new ItemStack(Material.STONE), 0);
+        assertEquals(1, writes());
+
+        // Only the staged slot that changed is pushed
+        graphic.getBuffer().set(0, new ItemStack(Material.STONE));
+        graphic.getBuffer().set(1, new ItemStack(Material.DIRT));
+        graphic.commit();
+
+        assertEquals(2, writes());
+        assertTrue(graphic.getBuffer().isEmpty());
+        assertEquals(new ItemStack(Material.DIRT), graphic.getItem(1));
+    }
+
+    @Test
+    void mutatedStackPushed() {
+        @NotNull ItemStack item = new ItemStack(Material.STONE);
+
+        graphic.setItem(item, 0);
+        assertEquals(1, writes());
+
+        // The same instance was changed after it was pushed, the fingerprint differs
+        item.setAmount(5);
+        graphic.setItem(item, 0);
+
+        assertEquals(2, writes());
+        assertEquals(5, graphic.getHandle().getItem(0).getAmount());
+    }
+
+    @Test
+    void air() {
+        // An empty slot is already showing air
+        graphic.setItem((ItemStack) null, null, 0);
+        graphic.setItem(new ItemStack(Material.AIR), 0);
+        assertEquals(0, writes());
+
+        graphic.setItem(new ItemStack(Material.STONE), 0);
+        graphic.setItem(new ItemStack(Material.AIR), 0);
+        assertEquals(2, writes());
+        assertNull(graphic.getItem(0));
+
+        graphic.setItem((ItemStack) null, null, 0);
+        assertEquals(2, writes());
+    }
+
+    @Test
+    void stagedDuringUpdate() {
+        graphic.beginUpdate();
+        graphic.setItem(new ItemStack(Material.STONE), 0);
+
+        // The slot is staged but already visible through the graphic
+        assertEquals(0, writes());
+        assertEquals(new ItemStack(Material.STONE), graphic.getItem(0));
+
+        graphic.endUpdate();
+        assertEquals(1, writes());
+    }
+
+    @Test
+    void invalidatedSlotPushed() {
+        graphic.setItem(new ItemStack(Material.STONE), 0);
+
+        // A viewer changed the slot, the same item has to be pushed again
+        graphic.invalidate(0);
+        graphic.setItem(new ItemStack(Material.STONE), 0);
+
+        assertEquals(2, writes());
+    }
+
+    // Views
+
+    @Test
+    void viewKeptAfterClose() {
+        @NotNull Player player = TestServer.player("Viewer");
+
+        graphic.setPerViewer(true);
+        graphic.setItem(new ItemStack(Material.STONE), 0, 1);
+        graphic.setItem(player, new ItemStack(Material.DIAMOND_SWORD), 0);
+        graphic.open(player);
+
+        @NotNull Inventory inventory = graphic.view(player).getInventory();
+        assertSame(inventory, TestServer.getOpenInventory(player));
+        assertEquals(new ItemStack(Material.DIAMOND_SWORD), inventory.getItem(0));
+
+        // Closing the inventory keeps the overlays
+        player.closeInventory();
+        assertNotNull(graphic.getView(player));
+
+        graphic.open(player);
+        assertEquals(new ItemStack(Material.DIAMOND_SWORD), TestServer.getOpenInventory(player).getItem(0));
+
+        // The base changes reach the slots without an overlay only
+        graphic.setItem(new ItemStack(Material.DIRT), 0, 1);
+        assertEquals(new ItemStack(Material.DIAMOND_SWORD), inventory.getItem(0));
+        assertEquals(new ItemStack(Material.DIRT), inventory.getItem(1));
+
+        assertTrue(graphic.removeView(player));
+        assertNull(TestServer.getOpenInventory(player));
+        assertNull(graphic.getView(player));
+    }
+
+    @Test
+    void offlineViewPruned() {
+        @NotNull Player player = TestServer.player("Offline");
+        @NotNull Player other = TestServer.player("Other");
+
+        graphic.setPerViewer(true);
+        graphic.setItem(player, new ItemStack(Material.DIAMOND_SWORD), 0);
+
+        // The view of a viewer that went offline is dropped once another view is created
+        TestServer.setOnline(player, false);
+        graphic.view(other);
+
+        assertNull(graphic.getView(player));
+        assertNotNull(graphic.getView(other));
+    }
+
+    @Test
+    void viewersOfViews() {
+        @NotNull Player player = TestServer.player("Viewer");
+
+        graphic.setPerViewer(true);
+        graphic.open(player);
+
+        // Nobody looks at the shared inventory, but the graphic is viewed
+        assertTrue(graphic.getHandle().getViewers().isEmpty());
+        assertTrue(graphic.hasViewers());
+
+        player.closeInventory();
+        assertFalse(graphic.hasViewers());
+    }
+
+    // Animations
+
+    @Test
+    void animationPausedWithoutViewers() {
+        @NotNull Player player = TestServer.player("Viewer");
+        @NotNull ItemStack first = new ItemStack(Material.STONE);
+        @NotNull ItemStack second = new ItemStack(Material.DIRT);
+
+        graphic.setPerViewer(true);
+        graphic.open(player);
+        graphic.animate(Animation.of(1, first, second), 0);
+
+        // The frames reach the view of the viewer
+        @NotNull Inventory inventory = graphic.view(player).getInventory();
+
+        assertEquals(first, inventory.getItem(0));
+        TestServer.tick();
+        assertEquals(second, inventory.getItem(0));
+
+        // Once nobody views the graphic, the clock doesn't visit it anymore
+        player.closeInventory();
+        TestServer.tick();
+        assertEquals(0, TestServer.getTimers());
+
+        graphic.open(player);
+        assertEquals(1, TestServer.getTimers());
+        TestServer.tick();
+        assertEquals(first, inventory.getItem(0));
+
+        graphic.close();
+        TestServer.tick();
+        assertEquals(0, TestServer.getTimers());
+    }
+
+    // Prototypes
+
+    @Test
+    void forkSharesUntilWritten() {
+        graphic.setItem(new ItemStack(Material.STONE), 0);
+        @NotNull Prototype prototype = graphic.freeze();
+
+        @NotNull InventoryGraphic fork = prototype.create();
+        assertEquals(new ItemStack(Material.STONE), fork.getItem(0));
+
+        // The writes of a fork don't reach the graphic, or the other forks
+        fork.setItem(new ItemStack(Material.DIRT), 0);
+        graphic.setItem(new ItemStack(Material.EMERALD), 1);
+
+        assertEquals(new ItemStack(Material.STONE), graphic.getItem(0));
+        assertEquals(new ItemStack(Material.STONE), prototype.create().getItem(0));
+        assertNull(fork.getItem(1));
+    }
+
+}
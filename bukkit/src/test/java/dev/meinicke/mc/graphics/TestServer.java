@@ -0,0 +1,431 @@
+package dev.meinicke.mc.graphics;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.IllegalPluginAccessException;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+
+/**
+ * A minimal server for the tests: the item meta is provided by the item factory of the server implementation at the
+ * classpath, the inventories are plain arrays and the scheduled tasks only run at {@link #tick()}.
+ */
+public final class TestServer implements InvocationHandler {
+
+    // Static initializers
+
+    private static final @NotNull Logger LOGGER = Logger.getLogger("TestServer");
+
+    private static @Nullable TestServer instance;
+
+    public static synchronized void install() {
+        if (Bukkit.getServer() == null) {
+            instance = new TestServer(Thread.currentThread());
+            Bukkit.setServer(proxy(Server.class, instance));
+        }
+    }
+    public static @NotNull Plugin plugin() {
+        return plugin(() -> true);
+    }
+    public static @NotNull Plugin plugin(@NotNull BooleanSupplier enabled) {
+        return proxy(Plugin.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getName":
+                    return "Test";
+                case "getLogger":
+                    return LOGGER;
+                case "isEnabled":
+                    return enabled.getAsBoolean();
+                default:
+                    return identity(proxy, method, args);
+            }
+        });
+    }
+
+    public static @NotNull Player player(@NotNull String name) {
+        return proxy(Player.class, new TestPlayer(name));
+    }
+    public static void setOnline(@NotNull Player player, boolean online) {
+        ((TestPlayer) Proxy.getInvocationHandler(player)).online = online;
+    }
+    public static @Nullable Inventory getOpenInventory(@NotNull HumanEntity human) {
+        return ((TestPlayer) Proxy.getInvocationHandler(human)).open;
+    }
+
+    public static int getWrites(@NotNull Inventory inventory) {
+        return ((TestInventory) Proxy.getInvocationHandler(inventory)).writes;
+    }
+
+    public static void callEvent(@NotNull Event event) {
+        @NotNull List<@NotNull Entry<@NotNull Listener, @NotNull Method>> handlers = new ArrayList<>();
+
+        for (@NotNull Listener listener : server().listeners) {
+            for (@NotNull Method method : listener.getClass().getDeclaredMethods()) {
+                if (method.isAnnotationPresent(EventHandler.class) && method.getParameterCount() == 1 && method.getParameterTypes()[0].isInstance(event)) {
+                    handlers.add(new SimpleImmutableEntry<>(listener, method));
+                }
+            }
+        }
+
+        handlers.sort(Comparator.comparing(entry -> entry.getValue().getAnnotation(EventHandler.class).priority()));
+
+        for (@NotNull Entry<@NotNull Listener, @NotNull Method> handler : handlers) {
+            @NotNull Method method = handler.getValue();
+
+            if (method.getAnnotation(EventHandler.class).ignoreCancelled() && event instanceof Cancellable && ((Cancellable) event).isCancelled()) {
+                continue;
+            }
+
+            try {
+                method.setAccessible(true);
+                method.invoke(handler.getKey(), event);
+            } catch (@NotNull InvocationTargetException e) {
+                throw new IllegalStateException("cannot call the event handler " + method, e.getCause());
+            } catch (@NotNull IllegalAccessException e) {
+                throw new IllegalStateException("cannot access the event handler " + method, e);
+            }
+        }
+    }
+
+    public static int tick() {
+        @NotNull TestServer server = server();
+        int ran = 0;
+
+        for (@Nullable Runnable task; (task = server.tasks.poll()) != null; ran++) {
+            task.run();
+        }
+        for (@NotNull Runnable timer : new ArrayList<>(server.timers)) {
+            timer.run();
+            ran++;
+        }
+
+        return ran;
+    }
+    public static int getPendingTasks() {
+        return server().tasks.size();
+    }
+    public static int getTimers() {
+        return server().timers.size();
+    }
+
+    private static @NotNull TestServer server() {
+        if (instance == null) {
+            throw new IllegalStateException("the test server isn't installed");
+        }
+
+        return instance;
+    }
+
+    private static @NotNull ItemFactory itemFactory() {
+        for (@NotNull String version : new String[] { "v1_8_R1", "v1_8_R2", "v1_8_R3" }) {
+            try {
+                @NotNull Class<?> type = Class.forName("org.bukkit.craftbukkit." + version + ".inventory.CraftItemFactory");
+                return (ItemFactory) type.getMethod("instance").invoke(null);
+            } catch (@NotNull ClassNotFoundException ignore) {
+                // Other version
+            } catch (@NotNull ReflectiveOperationException e) {
+                throw new IllegalStateException("cannot create the item factory", e);
+            }
+        }
+
+        throw new IllegalStateException("there's no item factory at the classpath");
+    }
+
+    private static <T> @NotNull T proxy(@NotNull Class<T> type, @NotNull InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(TestServer.class.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+    private static @Nullable Object identity(@NotNull Object proxy, @NotNull Method method, @Nullable Object @Nullable [] args) {
+        switch (method.getName()) {
+            case "equals":
+                //noinspection DataFlowIssue
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return proxy.getClass().getSimpleName();
+            default:
+                throw new UnsupportedOperationException("not supported by the test server: " + method.getName());
+        }
+    }
+
+    // Object
+
+    private final @NotNull Thread primary;
+    private @Nullable ItemFactory itemFactory;
+
+    private final @NotNull Queue<@NotNull Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final @NotNull List<@NotNull Runnable> timers = new ArrayList<>();
+
+    private final @NotNull List<@NotNull Listener> listeners = new ArrayList<>();
+    private final @NotNull PluginManager pluginManager = proxy(PluginManager.class, (proxy, method, args) -> {
+        switch (method.getName()) {
+            case "registerEvents":
+                //noinspection DataFlowIssue
+                listeners.add((Listener) args[0]);
+                return null;
+            case "callEvent":
+                //noinspection DataFlowIssue
+                callEvent((Event) args[0]);
+                return null;
+            default:
+                return identity(proxy, method, args);
+        }
+    });
+    private final @NotNull BukkitScheduler scheduler = proxy(BukkitScheduler.class, this::schedule);
+
+    private TestServer(@NotNull Thread primary) {
+        this.primary = primary;
+    }
+
+    private @Nullable Object schedule(@NotNull Object proxy, @NotNull Method method, @Nullable Object @Nullable [] args) {
+        if (!method.getName().equals("runTask") && !method.getName().equals("runTaskTimer")) {
+            return identity(proxy, method, args);
+        }
+
+        //noinspection DataFlowIssue
+        @NotNull Plugin plugin = (Plugin) args[0];
+        @NotNull Runnable task = (Runnable) args[1];
+
+        if (!plugin.isEnabled()) {
+            throw new IllegalPluginAccessException("plugin attempted to register task while disabled");
+        }
+
+        if (method.getName().equals("runTask")) {
+            tasks.add(task);
+            return task(() -> tasks.remove(task));
+        }
+
+        if (Thread.currentThread() != primary) {
+            throw new IllegalStateException("the timers are only scheduled at the primary thread");
+        }
+
+        timers.add(task);
+        return task(() -> timers.remove(task));
+    }
+    private static @NotNull BukkitTask task(@NotNull Runnable cancel) {
+        return proxy(BukkitTask.class, (proxy, method, args) -> {
+            if (method.getName().equals("cancel")) {
+                cancel.run();
+                return null;
+            }
+
+            return identity(proxy, method, args);
+        });
+    }
+
+    // Implementations
+
+    @Override
+    public @Nullable Object invoke(@NotNull Object proxy, @NotNull Method method, @Nullable Object @Nullable [] args) {
+        switch (method.getName()) {
+            case "getName":
+                return "TestServer";
+            case "getVersion":
+            case "getBukkitVersion":
+                return "1.8-R0.1-SNAPSHOT";
+            case "getLogger":
+                return LOGGER;
+            case "isPrimaryThread":
+                return Thread.currentThread() == primary;
+            case "getScheduler":
+                return scheduler;
+            case "getPluginManager":
+                return pluginManager;
+            case "getItemFactory":
+                if (itemFactory == null) itemFactory = itemFactory();
+                return itemFactory;
+            case "createInventory":
+                // Only the inventories with a size are supported
+                //noinspection DataFlowIssue
+                int size = args[1] instanceof Integer ? (Integer) args[1] : -1;
+                if (size < 0) return identity(proxy, method, args);
+
+                return new TestInventory((InventoryHolder) args[0], size, args.length > 2 ? (String) args[2] : "Chest").proxy();
+            default:
+                return identity(proxy, method, args);
+        }
+    }
+
+    // Classes
+
+    private static final class TestInventory implements InvocationHandler {
+
+        private final @Nullable InventoryHolder holder;
+        private final @NotNull String title;
+        private final @Nullable ItemStack @NotNull [] items;
+        private final @NotNull List<@NotNull HumanEntity> viewers = new ArrayList<>();
+        private int writes = 0;
+
+        private TestInventory(@Nullable InventoryHolder holder, int size, @NotNull String title) {
+            this.holder = holder;
+            this.title = title;
+            this.items = new ItemStack[size];
+        }
+
+        private @NotNull Inventory proxy() {
+            return TestServer.proxy(Inventory.class, this);
+        }
+
+        @Override
+        public @Nullable Object invoke(@NotNull Object proxy, @NotNull Method method, @Nullable Object @Nullable [] args) {
+            switch (method.getName()) {
+                case "getSize":
+                    return items.length;
+                case "getMaxStackSize":
+                    return 64;
+                case "getName":
+                case "getTitle":
+                    return title;
+                case "getHolder":
+                    return holder;
+                case "getViewers":
+                    return viewers;
+                case "getItem":
+                    //noinspection DataFlowIssue
+                    return items[(Integer) args[0]];
+                case "setItem":
+                    //noinspection DataFlowIssue
+                    items[(Integer) args[0]] = (ItemStack) args[1];
+                    writes++;
+                    return null;
+                case "getContents":
+                    return items.clone();
+                case "setContents":
+                    //noinspection DataFlowIssue
+                    @Nullable ItemStack @NotNull [] contents = (ItemStack[]) args[0];
+                    Arrays.fill(items, null);
+                    System.arraycopy(contents, 0, items, 0, Math.min(contents.length, items.length));
+                    writes += items.length;
+                    return null;
+                case "clear":
+                    if (args != null && args.length > 0) {
+                        //noinspection DataFlowIssue
+                        items[(Integer) args[0]] = null;
+                    } else {
+                        Arrays.fill(items, null);
+                    }
+
+                    return null;
+                default:
+                    return identity(proxy, method, args);
+            }
+        }
+
+    }
+
+    private static final class TestPlayer implements InvocationHandler {
+
+        private final @NotNull String name;
+        private final @NotNull UUID uniqueId;
+
+        private boolean online = true;
+        private @Nullable Inventory open;
+
+        private TestPlayer(@NotNull String name) {
+            this.name = name;
+            this.uniqueId = UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes(StandardCharsets.UTF_8));
+        }
+
+        // The events are called like by a server: the player is still a viewer while it's closing
+        private void close(@NotNull HumanEntity human) {
+            if (open != null) {
+                callEvent(new InventoryCloseEvent(view(human, open)));
+
+                ((TestInventory) Proxy.getInvocationHandler(open)).viewers.remove(human);
+                open = null;
+            }
+        }
+        private void open(@NotNull HumanEntity human, @NotNull Inventory inventory) {
+            close(human);
+
+            @NotNull InventoryOpenEvent event = new InventoryOpenEvent(view(human, inventory));
+            callEvent(event);
+
+            if (!event.isCancelled()) {
+                open = inventory;
+                ((TestInventory) Proxy.getInvocationHandler(inventory)).viewers.add(human);
+            }
+        }
+
+        private static @NotNull InventoryView view(@NotNull HumanEntity human, @NotNull Inventory inventory) {
+            return new InventoryView() {
+                @Override
+                public @NotNull Inventory getTopInventory() {
+                    return inventory;
+                }
+                @Override
+                public @NotNull Inventory getBottomInventory() {
+                    throw new UnsupportedOperationException("the players of the test server have no inventory");
+                }
+                @Override
+                public @NotNull HumanEntity getPlayer() {
+                    return human;
+                }
+                @Override
+                public @NotNull InventoryType getType() {
+                    return InventoryType.CHEST;
+                }
+            };
+        }
+
+        @Override
+        public @Nullable Object invoke(@NotNull Object proxy, @NotNull Method method, @Nullable Object @Nullable [] args) {
+            switch (method.getName()) {
+                case "getName":
+                    return name;
+                case "getUniqueId":
+                    return uniqueId;
+                case "isOnline":
+                    return online;
+                case "sendMessage":
+                    return null;
+                case "openInventory":
+                    //noinspection DataFlowIssue
+                    open((HumanEntity) proxy, (Inventory) args[0]);
+                    return null;
+                case "closeInventory":
+                    close((HumanEntity) proxy);
+                    return null;
+                default:
+                    return identity(proxy, method, args);
+            }
+        }
+
+    }
+
+}
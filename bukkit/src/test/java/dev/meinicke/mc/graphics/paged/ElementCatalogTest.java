@@ -0,0 +1,124 @@
+package dev.meinicke.mc.graphics.paged;
+
+import dev.meinicke.mc.graphics.TestServer;
+import dev.meinicke.mc.graphics.paged.PagedInventoryGraphic.Element;
+import dev.meinicke.mc.graphics.utils.ItemBuilder;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class ElementCatalogTest {
+
+    @BeforeAll
+    static void server() {
+        TestServer.install();
+    }
+
+    private static @NotNull List<@NotNull ItemStack> items(int amount) {
+        @NotNull List<ItemStack> items = new ArrayList<>();
+
+        for (int index = 0; index < amount; index++) {
+            items.add(new ItemBuilder(index % 2 == 0 ? Material.DIAMOND_SWORD : Material.PAPER)
+                    .amount(1 + index % 64)
+                    .name("§eItem #" + index)
+                    .lore("§7A catalog item.", "§7Index: " + index)
+                    .build());
+        }
+
+        return items;
+    }
+
+    @Test
+    void roundTrip(@TempDir @NotNull Path directory) throws IOException {
+        @NotNull Path path = directory.resolve("catalog.dat");
+        @NotNull List<@NotNull ItemStack> items = items(100);
+
+        try (@NotNull ElementCatalog catalog = ElementCatalog.open(path)) {
+            assertEquals(0, catalog.append(new ItemStack(Material.STONE)));
+            assertEquals(1, catalog.appendAll(items));
+            assertEquals(101, catalog.size());
+        }
+
+        try (@NotNull ElementCatalog catalog = ElementCatalog.open(path)) {
+            assertEquals(101, catalog.size());
+            assertEquals(new ItemStack(Material.STONE), catalog.get(0).getItemStack());
+
+            for (int index = 0; index < items.size(); index++) {
+                assertEquals(items.get(index), catalog.get(index + 1).getItemStack());
+            }
+
+            // Appending after reopening continues at the end
+            assertEquals(101, catalog.append(new ItemStack(Material.DIRT, 2)));
+        }
+
+        try (@NotNull ElementCatalog catalog = ElementCatalog.open(path)) {
+            assertEquals(102, catalog.size());
+            assertEquals(new ItemStack(Material.DIRT, 2), catalog.get(101).getItemStack());
+        }
+    }
+
+    @Test
+    void fetch(@TempDir @NotNull Path directory) throws IOException {
+        @NotNull List<@NotNull ItemStack> items = items(30);
+
+        try (@NotNull ElementCatalog catalog = ElementCatalog.open(directory.resolve("catalog.dat"))) {
+            catalog.appendAll(items);
+
+            @NotNull List<@NotNull Element> page = catalog.fetch(20, 20);
+            assertEquals(10, page.size());
+
+            for (int index = 0; index < page.size(); index++) {
+                assertEquals(items.get(20 + index), page.get(index).getItemStack());
+            }
+
+            assertTrue(catalog.fetch(30, 10).isEmpty());
+        }
+    }
+
+    @Test
+    void durable(@TempDir @NotNull Path directory) throws IOException {
+        @NotNull Path path = directory.resolve("catalog.dat");
+
+        try (@NotNull ElementCatalog catalog = ElementCatalog.open(path)) {
+            catalog.setDurable(true);
+            catalog.appendAll(items(10));
+
+            // The header already counts the appended entries before the catalog is flushed
+            assertEquals(10, ByteBuffer.wrap(Files.readAllBytes(directory.resolve("catalog.dat.idx"))).getLong(8));
+
+            catalog.setDurable(false);
+            catalog.append(new ItemStack(Material.STONE));
+            assertEquals(10, ByteBuffer.wrap(Files.readAllBytes(directory.resolve("catalog.dat.idx"))).getLong(8));
+
+            catalog.flush();
+            assertEquals(11, ByteBuffer.wrap(Files.readAllBytes(directory.resolve("catalog.dat.idx"))).getLong(8));
+        }
+    }
+
+    @Test
+    void truncatedOnClose(@TempDir @NotNull Path directory) throws IOException {
+        @NotNull Path path = directory.resolve("catalog.dat");
+
+        try (@NotNull ElementCatalog catalog = ElementCatalog.open(path)) {
+            catalog.appendAll(Arrays.asList(new ItemStack(Material.STONE), new ItemStack(Material.DIRT)));
+        }
+
+        // Only the written entries are left, not the mapped segments
+        assertTrue(Files.size(path) < 64);
+        assertEquals(32 + 2 * Long.BYTES, Files.size(directory.resolve("catalog.dat.idx")));
+    }
+
+}
@@ -0,0 +1,194 @@
+package dev.meinicke.mc.graphics.paged;
+
+import dev.meinicke.mc.graphics.TestServer;
+import dev.meinicke.mc.graphics.paged.PagedInventoryGraphic.Element;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class PagedInventoryGraphicTest {
+
+    private static final int BOUNDS = 45;
+
+    @BeforeAll
+    static void server() {
+        TestServer.install();
+    }
+
+    private @NotNull FakeSource source;
+    private @NotNull PagedInventoryGraphic graphic;
+
+    @BeforeEach
+    void graphic() {
+        source = new FakeSource(1000);
+
+        graphic = new PagedInventoryGraphic(TestServer.plugin(), "Test", 54, 45, 53);
+        graphic.setPreviousItem(() -> new ItemStack(Material.ARROW));
+        graphic.setNextItem(() -> new ItemStack(Material.ARROW));
+        graphic.setBounds(0, BOUNDS);
+        graphic.setElementSource(source);
+    }
+
+    @Test
+    void onlyVisiblePageFetched() {
+        source.reset();
+        graphic.setPage(3);
+
+        // Only the range of the visible page was requested, and only its elements were created
+        assertEquals(Arrays.asList(Arrays.asList(3 * BOUNDS, BOUNDS)), source.fetches);
+        assertEquals(BOUNDS, source.created);
+
+        for (int slot = 0; slot < BOUNDS; slot++) {
+            @Nullable ItemStack item = graphic.getItem(slot);
+
+            assertNotNull(item);
+            assertEquals(3 * BOUNDS + slot, item.getDurability());
+        }
+    }
+
+    @Test
+    void lastPage() {
+        int last = graphic.getAvailablePages() - 1;
+        assertEquals((1000 + BOUNDS - 1) / BOUNDS - 1, last);
+
+        source.reset();
+        graphic.setPage(last);
+
+        // The last page is shorter, the slots left are empty
+        int remaining = 1000 - last * BOUNDS;
+
+        assertEquals(Arrays.asList(Arrays.asList(last * BOUNDS, BOUNDS)), source.fetches);
+        assertEquals(remaining, source.created);
+        assertNotNull(graphic.getItem(remaining - 1));
+        assertNull(graphic.getItem(remaining));
+    }
+
+    @Test
+    void pageClamped() {
+        source.reset();
+        graphic.setPage(10_000);
+
+        assertEquals(graphic.getAvailablePages() - 1, graphic.getPage());
+        assertEquals(1, source.fetches.size());
+    }
+
+    @Test
+    void elementsOfPageOutOfRange() {
+        source.reset();
+
+        // The offset doesn't overflow to another page
+        assertTrue(graphic.getElements(Integer.MAX_VALUE / 2).isEmpty());
+        assertEquals(Arrays.asList(Arrays.asList(Integer.MAX_VALUE, BOUNDS)), source.fetches);
+
+        assertEquals(BOUNDS, graphic.getElements(-1).size());
+    }
+
+    @Test
+    void forksListenWhileViewed() {
+        @NotNull Player player = TestServer.player("Viewer");
+        @NotNull PagedInventoryGraphic fork = graphic.freeze().create();
+
+        graphic.freeze().create();
+        graphic.freeze().create();
+
+        // The forks share the source, but only the viewed ones listen to it
+        assertEquals(0, source.listeners.size());
+
+        fork.open(player);
+        assertEquals(1, source.listeners.size());
+
+        player.closeInventory();
+        assertEquals(0, source.listeners.size());
+
+        fork.open(player);
+        fork.close();
+        assertEquals(0, source.listeners.size());
+    }
+
+    @Test
+    void perViewerPages() {
+        @NotNull Player first = TestServer.player("First");
+        @NotNull Player second = TestServer.player("Second");
+
+        graphic.setPerViewer(true);
+        graphic.open(first, second);
+
+        // Only the viewer that changed the page sees it
+        graphic.setPage(first, 2);
+
+        assertEquals(2, graphic.getPage(first));
+        assertEquals(0, graphic.getPage(second));
+
+        @NotNull Inventory inventory = graphic.view(first).getInventory();
+        @NotNull Inventory other = graphic.view(second).getInventory();
+
+        assertEquals(2 * BOUNDS, inventory.getItem(0).getDurability());
+        assertEquals(0, other.getItem(0).getDurability());
+
+        graphic.close();
+    }
+
+    // Classes
+
+    /**
+     * A source that records the ranges fetched, the elements are created on demand like a database query.
+     */
+    private static final class FakeSource implements ElementSource {
+
+        private final int size;
+
+        private final @NotNull List<@NotNull List<@NotNull Integer>> fetches = new ArrayList<>();
+        private final @NotNull List<@NotNull Runnable> listeners = new ArrayList<>();
+        private int created = 0;
+
+        private FakeSource(int size) {
+            this.size = size;
+        }
+
+        private void reset() {
+            fetches.clear();
+            created = 0;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public @NotNull List<@NotNull Element> fetch(int offset, int length) {
+            fetches.add(Arrays.asList(offset, length));
+
+            @NotNull List<@NotNull Element> elements = new ArrayList<>();
+            for (int index = offset; index < Math.min(size, offset + length); index++) {
+                elements.add(Element.create(new ItemStack(Material.PAPER, 1, (short) index)));
+                created++;
+            }
+
+            return elements;
+        }
+
+        @Override
+        public void addListener(@NotNull Runnable listener) {
+            listeners.add(listener);
+        }
+        @Override
+        public void removeListener(@NotNull Runnable listener) {
+            listeners.remove(listener);
+        }
+
+    }
+
+}
@@ -0,0 +1,151 @@
+package dev.meinicke.mc.graphics.utils;
+
+import dev.meinicke.mc.graphics.TestServer;
+import org.bukkit.Material;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class ItemCodecTest {
+
+    @BeforeAll
+    static void server() {
+        TestServer.install();
+    }
+
+    private static @NotNull List<@Nullable ItemStack> items() {
+        @NotNull Material[] materials = { Material.DIAMOND_SWORD, Material.GOLD_INGOT, Material.EMERALD, Material.BOOK, Material.IRON_CHESTPLATE };
+        @NotNull List<ItemStack> items = new ArrayList<>();
+
+        for (int index = 0; index < 200; index++) {
+            @NotNull Material material = materials[index % materials.length];
+
+            if (index % 10 == 0) {
+                items.add(new ItemStack(material, 1 + index % 64));
+                continue;
+            }
+
+            @NotNull ItemStack item = new ItemBuilder(material)
+                    .amount(1 + index % 16)
+                    .name("§aShop item #" + index)
+                    .lore("§7Price: §e" + (index * 25) + " coins", "", "§7Left click to buy.", "§7Right click to sell.")
+                    .build();
+
+            if (index % 3 == 0) {
+                @NotNull ItemMeta meta = item.getItemMeta();
+                meta.addItemFlags(ItemFlag.HIDE_ATTRIBUTES);
+                item.setItemMeta(meta);
+            }
+            if (material == Material.IRON_CHESTPLATE) {
+                item.setDurability((short) (index % 100));
+            }
+
+            items.add(item);
+        }
+
+        // Air is encoded as an empty item
+        items.add(null);
+
+        return items;
+    }
+
+    @Test
+    void roundTrip() {
+        @NotNull List<@Nullable ItemStack> items = items();
+
+        @NotNull ItemCodec.Encoder encoder = new ItemCodec.Encoder();
+        for (@Nullable ItemStack item : items) {
+            encoder.writeItem(item);
+        }
+
+        @NotNull ItemCodec.Decoder decoder = new ItemCodec.Decoder(encoder.finish());
+        for (@Nullable ItemStack item : items) {
+            assertEquals(item, decoder.readItem());
+        }
+
+        assertFalse(decoder.hasRemaining());
+    }
+    @Test
+    void single() {
+        for (@Nullable ItemStack item : items()) {
+            assertEquals(item, ItemCodec.decode(ItemCodec.encode(item)));
+        }
+    }
+
+    @Test
+    void smallerThanYaml() {
+        @NotNull List<@Nullable ItemStack> items = items();
+
+        @NotNull ItemCodec.Encoder encoder = new ItemCodec.Encoder();
+        for (@Nullable ItemStack item : items) {
+            encoder.writeItem(item);
+        }
+        @NotNull ByteBuffer encoded = encoder.finish();
+
+        // The item data as stored by the configurations, through ItemStack#serialize
+        @NotNull YamlConfiguration configuration = new YamlConfiguration();
+        configuration.set("items", items);
+        int yaml = configuration.saveToString().getBytes(StandardCharsets.UTF_8).length;
+
+        assertTrue(encoded.remaining() * 3 < yaml, "encoded " + encoded.remaining() + " bytes, yaml " + yaml + " bytes");
+
+        // Every item on its own doesn't share the strings, but it's still smaller
+        int total = 0;
+        for (@Nullable ItemStack item : items) {
+            total += ItemCodec.encode(item).length;
+        }
+
+        assertTrue(total < yaml, "encoded " + total + " bytes, yaml " + yaml + " bytes");
+    }
+
+    @Test
+    void timing() throws InvalidConfigurationException {
+        @NotNull List<@Nullable ItemStack> items = items();
+
+        // Warms up both paths before measuring, the numbers are reported and not asserted since they depend
+        // on the machine running the tests
+        long codec = 0, yaml = 0;
+        for (int round = 0; round < 40; round++) {
+            long start = System.nanoTime();
+
+            @NotNull ItemCodec.Encoder encoder = new ItemCodec.Encoder();
+            for (@Nullable ItemStack item : items) {
+                encoder.writeItem(item);
+            }
+            @NotNull ItemCodec.Decoder decoder = new ItemCodec.Decoder(encoder.finish());
+            while (decoder.hasRemaining()) {
+                decoder.readItem();
+            }
+
+            long middle = System.nanoTime();
+
+            @NotNull YamlConfiguration configuration = new YamlConfiguration();
+            configuration.set("items", items);
+            new YamlConfiguration().loadFromString(configuration.saveToString());
+
+            long finish = System.nanoTime();
+
+            if (round >= 20) {
+                codec += middle - start;
+                yaml += finish - middle;
+            }
+        }
+
+        System.out.printf("%d items encoded and decoded: codec %.3f ms, yaml %.3f ms%n", items.size(), codec / 20 / 1e6, yaml / 20 / 1e6);
+        assertTrue(codec > 0 && yaml > 0);
+    }
+
+}
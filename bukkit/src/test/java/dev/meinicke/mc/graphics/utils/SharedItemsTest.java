@@ -0,0 +1,60 @@
+package dev.meinicke.mc.graphics.utils;
+
+import dev.meinicke.mc.graphics.TestServer;
+import dev.meinicke.mc.graphics.paged.BlankItem;
+import org.bukkit.Material;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class SharedItemsTest {
+
+    @BeforeAll
+    static void server() {
+        TestServer.install();
+    }
+
+    @Test
+    void interned() {
+        @NotNull ItemStack item = SharedItems.intern(new ItemBuilder(Material.EMERALD).name("§aShared"));
+
+        assertSame(item, SharedItems.intern(new ItemBuilder(Material.EMERALD).name("§aShared")));
+        assertThrows(UnsupportedOperationException.class, () -> item.setAmount(2));
+
+        // The blank items share the default item instead of copying it
+        assertSame(new BlankItem(0).getItemStack(), new BlankItem(1).getItemStack());
+    }
+
+    @Test
+    void cloneIsPlain() {
+        @NotNull ItemStack clone = SharedItems.intern(new ItemStack(Material.BOOK)).clone();
+
+        assertEquals(ItemStack.class, clone.getClass());
+        assertFalse(SharedItems.isShared(clone));
+
+        clone.setAmount(2);
+        assertEquals(2, clone.getAmount());
+    }
+
+    @Test
+    void yamlRoundTrip() throws InvalidConfigurationException {
+        @NotNull ItemStack item = SharedItems.intern(new ItemBuilder(Material.DIAMOND_SWORD).name("§bSword").lore("§7Shared."));
+
+        @NotNull YamlConfiguration configuration = new YamlConfiguration();
+        configuration.set("item", item);
+
+        @NotNull YamlConfiguration loaded = new YamlConfiguration();
+        loaded.loadFromString(configuration.saveToString());
+
+        // Saved as a plain item stack, so it's loaded back
+        @NotNull ItemStack read = loaded.getItemStack("item");
+        assertEquals(ItemStack.class, read.getClass());
+        assertEquals(item, read);
+    }
+
+}